@@ -0,0 +1,68 @@
+#!/usr/bin/env bash
+# Compares cold start of the JVM build and the native image of the service.
+#
+# For each build it measures the time from launch until the HTTP port answers,
+# then the latency of the first and of the tenth request on the booking path
+# (mark available, read the slot back). Both builds run in dev mode so they
+# need no database and start from the same empty state.
+#
+# Build both first:
+#   mvn -Pstandalone package dependency:build-classpath -Dmdep.outputFile=target/classpath.txt
+#   mvn -Pstandalone,native package
+set -euo pipefail
+
+cd "$(dirname "$0")/.."
+
+PORT=${PORT:-9000}
+BASE_URL="http://localhost:${PORT}/flight"
+RUNTIME_PROPS=(-Dakka.javasdk.dev-mode.enabled=true -Dakka.javasdk.dev-mode.http-port="${PORT}")
+
+now_ms() {
+  date +%s%3N
+}
+
+# Prints the time in seconds a request takes, failing on an error status
+timed_request() {
+  curl -sf -o /dev/null -w '%{time_total}' "$@"
+}
+
+measure() {
+  local name=$1
+  shift
+
+  local started
+  started=$(now_ms)
+  "$@" >"target/startup-${name}.log" 2>&1 &
+  local pid=$!
+  trap 'kill "$pid" 2>/dev/null || true' RETURN
+
+  until curl -s -o /dev/null "${BASE_URL}/availability/warmup"; do
+    if ! kill -0 "$pid" 2>/dev/null; then
+      echo "${name} exited during startup, see target/startup-${name}.log" >&2
+      return 1
+    fi
+    sleep 0.01
+  done
+  local ready=$(($(now_ms) - started))
+
+  local first last
+  for i in $(seq 1 10); do
+    local slot
+    slot=$(printf '2030-03-%02d-09' "$i")
+    local elapsed
+    elapsed=$(timed_request -X POST -H 'Content-Type: application/json' \
+      -d '{"participantId": "startup-student", "participantType": "STUDENT"}' \
+      "${BASE_URL}/availability/${slot}")
+    elapsed=$(echo "${elapsed} + $(timed_request "${BASE_URL}/availability/${slot}")" | bc)
+    if [ "$i" -eq 1 ]; then
+      first=$elapsed
+    fi
+    last=$elapsed
+  done
+
+  printf '%-8s %12s %18s %18s\n' "$name" "${ready} ms" "${first} s" "${last} s"
+}
+
+printf '%-8s %12s %18s %18s\n' build "port ready" "first request" "tenth request"
+measure jvm java -cp "target/classes:$(cat target/classpath.txt)" "${RUNTIME_PROPS[@]}" kalix.runtime.AkkaRuntimeMain
+measure native ./target/akka-dev-cert "${RUNTIME_PROPS[@]}"
@@ -0,0 +1,187 @@
+package io.example;
+
+import akka.Done;
+import akka.javasdk.DependencyProvider;
+import akka.javasdk.ServiceSetup;
+import akka.javasdk.annotations.Setup;
+import akka.javasdk.client.ComponentClient;
+import akka.javasdk.timer.TimerScheduler;
+import akka.stream.Materializer;
+import akka.stream.RestartSettings;
+import akka.stream.javadsl.RestartSource;
+import akka.stream.javadsl.Source;
+import com.typesafe.config.Config;
+import io.example.api.AdmissionController;
+import io.example.application.AvailabilityIndex;
+import io.example.application.FaultInjector;
+import io.example.application.IdempotencyCache;
+import io.example.application.ParticipantBitmapIndex;
+import io.example.application.ParticipantSlotsView;
+import io.example.application.ParticipantSlotsView.SlotRow;
+import io.example.application.ScheduleImporter;
+import io.example.application.SlotArchivalAction;
+import io.example.application.SlotBooker;
+import io.example.application.SlotSnapshotReader;
+import io.example.application.WaitlistPromoter;
+import io.example.domain.SlotIds;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.function.Consumer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+// Service-wide setup. Owns the in-memory structures that are shared
+// between components and hands them out through the dependency provider.
+@Setup
+public class Bootstrap implements ServiceSetup {
+    private final Logger log = LoggerFactory.getLogger(Bootstrap.class);
+
+    private static final Duration HORIZON_SWEEP_INTERVAL = Duration.ofHours(1);
+
+    private final ComponentClient componentClient;
+    private final Materializer materializer;
+    private final TimerScheduler timerScheduler;
+    private final Duration archivalHorizon;
+
+    private final AvailabilityIndex availabilityIndex = new AvailabilityIndex();
+    private final ParticipantBitmapIndex bitmapIndex = new ParticipantBitmapIndex();
+    private final IdempotencyCache idempotencyCache;
+    private final AdmissionController admissionController;
+    private final ScheduleImporter scheduleImporter;
+    private final SlotBooker slotBooker;
+    private final WaitlistPromoter waitlistPromoter;
+    private final SlotSnapshotReader snapshotReader;
+    private final FaultInjector faultInjector;
+
+    public Bootstrap(
+            ComponentClient componentClient,
+            Materializer materializer,
+            TimerScheduler timerScheduler,
+            Config config) {
+        this.componentClient = componentClient;
+        this.materializer = materializer;
+        this.timerScheduler = timerScheduler;
+        this.archivalHorizon = config.getDuration("flight.archival.horizon");
+        this.idempotencyCache = new IdempotencyCache(
+                config.getInt("flight.idempotency.max-cached-keys"),
+                config.getDuration("flight.idempotency.ttl"),
+                config.getDuration("flight.idempotency.in-progress-timeout"),
+                Clock.systemUTC());
+        this.admissionController = new AdmissionController(
+                new AdmissionController.Limits(
+                        config.getInt("flight.admission.max-concurrent-requests"),
+                        config.getDouble("flight.admission.bulk-share"),
+                        config.getDouble("flight.admission.route-rate-per-second"),
+                        config.getInt("flight.admission.route-burst"),
+                        config.getDouble("flight.admission.participant-rate-per-second"),
+                        config.getInt("flight.admission.participant-burst")),
+                System::nanoTime,
+                materializer.executionContext());
+        this.scheduleImporter = new ScheduleImporter(
+                componentClient,
+                materializer,
+                Path.of(config.getString("flight.import.directory")),
+                config.getInt("flight.import.chunk-lines"),
+                config.getInt("flight.import.default-parallelism"),
+                config.getInt("flight.import.max-parallelism"));
+        this.slotBooker = new SlotBooker(componentClient);
+        this.waitlistPromoter = new WaitlistPromoter(componentClient, slotBooker);
+        this.snapshotReader = new SlotSnapshotReader(
+                componentClient,
+                materializer,
+                config.getInt("flight.snapshot.parallelism"),
+                config.getInt("flight.snapshot.max-slots"));
+        this.faultInjector = new FaultInjector(
+                config.getDouble("flight.fault-injection.failure-rate"),
+                config.getString("flight.fault-injection.slot-prefix"),
+                config.getLong("flight.fault-injection.seed"));
+    }
+
+    @Override
+    public void onStartup() {
+        followView(
+                row -> {
+                    availabilityIndex.apply(row);
+                    bitmapIndex.apply(row);
+                },
+                horizonSlotId -> {
+                    availabilityIndex.dropBefore(horizonSlotId);
+                    bitmapIndex.dropBefore(horizonSlotId);
+                });
+
+        // The archival action reschedules itself after every run. Creating the
+        // timer under the same name on every startup replaces any pending one.
+        timerScheduler.createSingleTimer(
+                SlotArchivalAction.TIMER_NAME,
+                Duration.ofMinutes(1),
+                componentClient.forTimedAction()
+                        .method(SlotArchivalAction::archivePastSlots)
+                        .deferred(SlotArchivalAction.FIRST_PAGE));
+    }
+
+    // Follows the participant slots view with a live query: the current rows
+    // first, then every change to them, in order, so a stale row can never
+    // overwrite a newer one. Every node runs its own query, since a consumer
+    // would deliver each event to only one node of a cluster. The query is
+    // restarted with backoff if it fails. Archived rows leave the view
+    // without an update, so slots past the archival horizon are dropped
+    // periodically instead.
+    private void followView(Consumer<SlotRow> apply, Consumer<String> dropBefore) {
+        RestartSource.withBackoff(
+                        RestartSettings.create(Duration.ofSeconds(1), Duration.ofSeconds(30), 0.2),
+                        () -> {
+                            var fromSlotId = horizonSlotId();
+                            log.info("Following the participant slots view from {}", fromSlotId);
+                            return componentClient.forView()
+                                    .stream(ParticipantSlotsView::streamSlotUpdates)
+                                    .source(fromSlotId);
+                        })
+                .runForeach(apply::accept, materializer);
+        Source.tick(HORIZON_SWEEP_INTERVAL, HORIZON_SWEEP_INTERVAL, Done.getInstance())
+                .runForeach(tick -> dropBefore.accept(horizonSlotId()), materializer);
+    }
+
+    private String horizonSlotId() {
+        return SlotIds.format(LocalDateTime.now(ZoneOffset.UTC).minus(archivalHorizon));
+    }
+
+    @Override
+    public DependencyProvider createDependencyProvider() {
+        return new DependencyProvider() {
+            @Override
+            public <T> T getDependency(Class<T> clazz) {
+                if (clazz == AvailabilityIndex.class) {
+                    return clazz.cast(availabilityIndex);
+                }
+                if (clazz == ParticipantBitmapIndex.class) {
+                    return clazz.cast(bitmapIndex);
+                }
+                if (clazz == IdempotencyCache.class) {
+                    return clazz.cast(idempotencyCache);
+                }
+                if (clazz == AdmissionController.class) {
+                    return clazz.cast(admissionController);
+                }
+                if (clazz == ScheduleImporter.class) {
+                    return clazz.cast(scheduleImporter);
+                }
+                if (clazz == SlotBooker.class) {
+                    return clazz.cast(slotBooker);
+                }
+                if (clazz == WaitlistPromoter.class) {
+                    return clazz.cast(waitlistPromoter);
+                }
+                if (clazz == SlotSnapshotReader.class) {
+                    return clazz.cast(snapshotReader);
+                }
+                if (clazz == FaultInjector.class) {
+                    return clazz.cast(faultInjector);
+                }
+                throw new IllegalArgumentException("Unknown dependency type: " + clazz.getName());
+            }
+        };
+    }
+}
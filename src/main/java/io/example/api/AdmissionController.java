@@ -0,0 +1,152 @@
+package io.example.api;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Map;
+import java.util.ArrayList;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongSupplier;
+
+// Admission control for the flight endpoint. A request is admitted when its
+// route and each participant it touches still have tokens in their buckets
+// and a slot under the global concurrency cap is free. Participant buckets
+// are kept per priority and bulk availability traffic may only use part of
+// the concurrency cap, so bookings are still admitted while a misbehaving
+// integration saturates its share, even for the aircraft it is spamming.
+// A rejected request gives back the tokens it took, so rejected traffic does
+// not drain the budgets of others. Everything on the hot path is lock-free;
+// idle participant buckets are swept in the background.
+public class AdmissionController {
+
+    public enum Priority {
+        BOOKING,
+        BULK
+    }
+
+    // once this many participant buckets exist, idle ones are dropped
+    private static final int PARTICIPANT_BUCKETS_SWEEP_THRESHOLD = 10_000;
+
+    private final Limits limits;
+    private final LongSupplier nanoClock;
+    private final Executor sweeper;
+
+    private final Map<String, TokenBucket> routeBuckets = new ConcurrentHashMap<>();
+    private final Map<String, TokenBucket> participantBuckets = new ConcurrentHashMap<>();
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicBoolean sweeping = new AtomicBoolean();
+
+    public AdmissionController(Limits limits, LongSupplier nanoClock, Executor sweeper) {
+        this.limits = limits;
+        this.nanoClock = nanoClock;
+        this.sweeper = sweeper;
+    }
+
+    public Admission tryAdmit(String route, Priority priority, Collection<String> participantIds) {
+        var now = nanoClock.getAsLong();
+        var taken = new ArrayList<TokenBucket>(participantIds.size() + 1);
+
+        var routeBucket = routeBuckets
+                .computeIfAbsent(route, r -> new TokenBucket(limits.routeRate(), limits.routeBurst(), now));
+        var wait = routeBucket.tryAcquire(now);
+        if (wait > 0) {
+            return Admission.rejected(Duration.ofNanos(wait));
+        }
+        taken.add(routeBucket);
+
+        for (String participantId : participantIds) {
+            var bucket = participantBucket(priority, participantId, now);
+            wait = bucket.tryAcquire(now);
+            if (wait > 0) {
+                taken.forEach(TokenBucket::refund);
+                return Admission.rejected(Duration.ofNanos(wait));
+            }
+            taken.add(bucket);
+        }
+
+        var cap = priority == Priority.BOOKING
+                ? limits.maxConcurrent()
+                : (int) (limits.maxConcurrent() * limits.bulkShare());
+        while (true) {
+            var current = inFlight.get();
+            if (current >= cap) {
+                taken.forEach(TokenBucket::refund);
+                return Admission.rejected(Duration.ofSeconds(1));
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return new Admission(true, Duration.ZERO, inFlight);
+            }
+        }
+    }
+
+    public int inFlight() {
+        return inFlight.get();
+    }
+
+    // Participants have one bucket per priority, so bulk traffic for an
+    // aircraft cannot use up the tokens of bookings that include it
+    private TokenBucket participantBucket(Priority priority, String participantId, long now) {
+        if (participantBuckets.size() > PARTICIPANT_BUCKETS_SWEEP_THRESHOLD && sweeping.compareAndSet(false, true)) {
+            sweeper.execute(this::sweepIdleBuckets);
+        }
+        return participantBuckets.computeIfAbsent(
+                priority + ":" + participantId,
+                p -> new TokenBucket(limits.participantRate(), limits.participantBurst(), now));
+    }
+
+    private void sweepIdleBuckets() {
+        try {
+            var now = nanoClock.getAsLong();
+            participantBuckets.values().removeIf(bucket -> bucket.isFull(now));
+        } finally {
+            sweeping.set(false);
+        }
+    }
+
+    public record Limits(
+            int maxConcurrent,
+            double bulkShare,
+            double routeRate,
+            int routeBurst,
+            double participantRate,
+            int participantBurst) {
+    }
+
+    // The outcome of an admission check. An admitted request holds a slot
+    // under the concurrency cap until it is closed. Closing it again has no
+    // effect.
+    public static final class Admission implements AutoCloseable {
+        private final boolean admitted;
+        private final Duration retryAfter;
+        private final AtomicInteger inFlight;
+        private final AtomicBoolean closed = new AtomicBoolean();
+
+        private Admission(boolean admitted, Duration retryAfter, AtomicInteger inFlight) {
+            this.admitted = admitted;
+            this.retryAfter = retryAfter;
+            this.inFlight = inFlight;
+        }
+
+        static Admission rejected(Duration retryAfter) {
+            return new Admission(false, retryAfter, null);
+        }
+
+        public boolean admitted() {
+            return admitted;
+        }
+
+        // Whole seconds, rounded up, as used by the Retry-After header
+        public long retryAfterSeconds() {
+            return Math.max(1, (retryAfter.toMillis() + 999) / 1000);
+        }
+
+        @Override
+        public void close() {
+            if (inFlight != null && closed.compareAndSet(false, true)) {
+                inFlight.decrementAndGet();
+            }
+        }
+    }
+}
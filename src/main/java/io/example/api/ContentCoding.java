@@ -0,0 +1,103 @@
+package io.example.api;
+
+import akka.NotUsed;
+import akka.http.javadsl.model.headers.HttpEncoding;
+import akka.http.javadsl.model.headers.HttpEncodings;
+import akka.stream.javadsl.Compression;
+import akka.stream.javadsl.Flow;
+import akka.util.ByteString;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.Optional;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPOutputStream;
+
+// The response compressions the endpoint offers, in order of preference
+// when a client accepts several with the same quality.
+public enum ContentCoding {
+    GZIP(HttpEncodings.GZIP),
+    DEFLATE(HttpEncodings.DEFLATE);
+
+    private final HttpEncoding httpEncoding;
+
+    ContentCoding(HttpEncoding httpEncoding) {
+        this.httpEncoding = httpEncoding;
+    }
+
+    public HttpEncoding httpEncoding() {
+        return httpEncoding;
+    }
+
+    // Compresses a streamed body chunk by chunk
+    public Flow<ByteString, ByteString, NotUsed> flow() {
+        return switch (this) {
+            case GZIP -> Compression.gzip();
+            case DEFLATE -> Compression.deflate();
+        };
+    }
+
+    // Compresses a body that is already in memory. HTTP's `deflate` is the
+    // zlib format, which is what DeflaterOutputStream writes.
+    public byte[] encode(byte[] body) {
+        var out = new ByteArrayOutputStream(body.length / 4 + 64);
+        try (OutputStream compressed = switch (this) {
+            case GZIP -> new GZIPOutputStream(out);
+            case DEFLATE -> new DeflaterOutputStream(out);
+        }) {
+            compressed.write(body);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        return out.toByteArray();
+    }
+
+    // Picks the coding with the highest quality in an Accept-Encoding header,
+    // e.g. `gzip;q=0.8, deflate`. Codings with q=0 are refused and `*`
+    // stands for any coding not named explicitly.
+    public static Optional<ContentCoding> negotiate(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return Optional.empty();
+        }
+        var qualities = new double[values().length];
+        var named = new boolean[values().length];
+        var wildcard = -1.0;
+        for (String part : acceptEncoding.split(",")) {
+            var params = part.split(";");
+            var name = params[0].trim().toLowerCase();
+            var quality = 1.0;
+            for (int i = 1; i < params.length; i++) {
+                var param = params[i].trim();
+                if (param.startsWith("q=")) {
+                    try {
+                        quality = Double.parseDouble(param.substring(2));
+                    } catch (NumberFormatException ex) {
+                        quality = 0;
+                    }
+                }
+            }
+            if (name.equals("*")) {
+                wildcard = quality;
+                continue;
+            }
+            for (ContentCoding coding : values()) {
+                if (name.equals(coding.httpEncoding.value())) {
+                    qualities[coding.ordinal()] = quality;
+                    named[coding.ordinal()] = true;
+                }
+            }
+        }
+
+        ContentCoding best = null;
+        var bestQuality = 0.0;
+        for (ContentCoding coding : values()) {
+            var quality = named[coding.ordinal()] ? qualities[coding.ordinal()] : Math.max(wildcard, 0);
+            if (quality > bestQuality) {
+                best = coding;
+                bestQuality = quality;
+            }
+        }
+        return Optional.ofNullable(best);
+    }
+}
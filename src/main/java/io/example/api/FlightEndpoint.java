@@ -1,57 +1,191 @@
 package io.example.api;
 
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
 import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Supplier;
 
+import io.example.api.AdmissionController.Priority;
+import io.example.application.ArchivedSlotsView;
+import io.example.application.AvailabilityIndex;
 import io.example.application.BookingSlotEntity;
+import io.example.application.IdempotencyCache;
+import io.example.application.IdempotencyKeyEntity;
+import io.example.application.IdempotencyKeyExpiryAction;
+import io.example.application.ImportJobEntity;
+import io.example.application.ParticipantBitmapIndex;
 import io.example.application.ParticipantSlotsView;
+import io.example.application.ScheduleImporter;
+import io.example.application.SlotBooker;
+import io.example.application.SlotSnapshotReader;
+import io.example.application.UtilisationEntity;
+import io.example.application.UtilisationView;
+import io.example.application.WaitlistEntity;
+import io.example.application.WaitlistPromoter;
 import io.example.domain.Participant;
+import io.example.domain.SlotStatus;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import akka.http.javadsl.model.ContentType;
+import akka.http.javadsl.model.ContentTypes;
+import akka.http.javadsl.model.HttpEntities;
 import akka.http.javadsl.model.HttpResponse;
+import akka.http.javadsl.model.StatusCodes;
+import akka.http.javadsl.model.headers.ContentEncoding;
+import akka.http.javadsl.model.headers.RawHeader;
 import akka.javasdk.annotations.Acl;
 import akka.javasdk.annotations.http.Delete;
 import akka.javasdk.annotations.http.Get;
 import akka.javasdk.annotations.http.HttpEndpoint;
 import akka.javasdk.annotations.http.Post;
+import akka.javasdk.JsonSupport;
 import akka.javasdk.client.ComponentClient;
 import akka.javasdk.http.AbstractHttpEndpoint;
 import akka.javasdk.http.HttpException;
 import akka.javasdk.http.HttpResponses;
-import io.example.application.ParticipantSlotsView.SlotList;
+import akka.javasdk.timer.TimerScheduler;
+import akka.stream.javadsl.Source;
+import akka.util.ByteString;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.core.JsonProcessingException;
 import io.example.domain.Participant.ParticipantType;
-import io.example.domain.Timeslot;
 
 @Acl(allow = @Acl.Matcher(principal = Acl.Principal.INTERNET))
 @HttpEndpoint("/flight")
 public class FlightEndpoint extends AbstractHttpEndpoint {
     private final Logger log = LoggerFactory.getLogger(FlightEndpoint.class);
 
+    // Upper bound on the number of candidate slots a single match request
+    // will try to book before giving up
+    private static final int MAX_MATCH_ATTEMPTS = 20;
+
+    // JSON responses smaller than this are sent uncompressed, since
+    // compressing them saves less than it costs
+    static final int MIN_COMPRESSED_BYTES = 1024;
+
+    // Fields a slot listing may be restricted to, and the subset the lean
+    // summary projection can serve
+    private static final Set<String> SLOT_ROW_FIELDS =
+            Set.of("slotId", "participantId", "participantType", "bookingId", "status");
+    private static final Set<String> SLOT_SUMMARY_FIELDS = Set.of("slotId", "bookingId");
+
+    static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+    static final String IDEMPOTENT_REPLAYED_HEADER = "Idempotent-Replayed";
+
     private final ComponentClient componentClient;
+    private final AvailabilityIndex availabilityIndex;
+    private final ParticipantBitmapIndex bitmapIndex;
+    private final IdempotencyCache idempotencyCache;
+    private final AdmissionController admissionController;
+    private final ScheduleImporter scheduleImporter;
+    private final SlotBooker slotBooker;
+    private final SlotSnapshotReader snapshotReader;
+    private final WaitlistPromoter waitlistPromoter;
+    private final TimerScheduler timerScheduler;
 
-    public FlightEndpoint(ComponentClient componentClient) {
+    public FlightEndpoint(
+            ComponentClient componentClient,
+            AvailabilityIndex availabilityIndex,
+            ParticipantBitmapIndex bitmapIndex,
+            IdempotencyCache idempotencyCache,
+            AdmissionController admissionController,
+            ScheduleImporter scheduleImporter,
+            SlotBooker slotBooker,
+            SlotSnapshotReader snapshotReader,
+            WaitlistPromoter waitlistPromoter,
+            TimerScheduler timerScheduler) {
         this.componentClient = componentClient;
+        this.availabilityIndex = availabilityIndex;
+        this.bitmapIndex = bitmapIndex;
+        this.idempotencyCache = idempotencyCache;
+        this.admissionController = admissionController;
+        this.scheduleImporter = scheduleImporter;
+        this.slotBooker = slotBooker;
+        this.snapshotReader = snapshotReader;
+        this.waitlistPromoter = waitlistPromoter;
+        this.timerScheduler = timerScheduler;
     }
 
     // Creates a new booking. All three identified participants will
     // be considered booked for the given timeslot, if they are all
-    // "available" at the time of booking.
+    // "available" at the time of booking and none of them is booked
+    // in an overlapping slot.
     @Post("/bookings/{slotId}")
     public HttpResponse createBooking(String slotId, BookingRequest request) {
         log.info("Creating booking for slot {}: {}", slotId, request);
 
-        var cmd = new BookingSlotEntity.Command.BookReservation(
-                request.studentId,
-                request.aircraftId,
-                request.instructorId,
-                request.bookingId
-        );
-        componentClient
-                .forEventSourcedEntity(slotId)
-                .method(BookingSlotEntity::bookSlot)
-                .invoke(cmd);
+        var participantIds = List.of(request.studentId, request.aircraftId, request.instructorId);
+        return idempotent("create-booking " + slotId + " " + request, () ->
+                admitted("create-booking", Priority.BOOKING, participantIds, () -> {
+                    var cmd = new BookingSlotEntity.Command.BookReservation(
+                            request.studentId,
+                            request.aircraftId,
+                            request.instructorId,
+                            request.bookingId
+                    );
+                    try {
+                        slotBooker.book(slotId, cmd);
+                    } catch (SlotBooker.OverlappingBookingException ex) {
+                        throw HttpException.error(StatusCodes.CONFLICT, ex.getMessage());
+                    }
+
+                    return HttpResponses.created();
+                }));
+    }
+
+    // Books the earliest slot in the requested range in which the student, an
+    // instructor and an aircraft are all available. Candidates come from the
+    // in-memory availability index; if the entity rejects a candidate because
+    // someone else booked it first, the next candidate is tried.
+    @Post("/match")
+    public HttpResponse matchBooking(MatchRequest request) {
+        log.info("Matching booking: {}", request);
+        if (request.studentId() == null || request.bookingId() == null
+                || request.fromSlotId() == null || request.toSlotId() == null) {
+            throw HttpException.badRequest("studentId, bookingId, fromSlotId and toSlotId are required");
+        }
 
-        return HttpResponses.created();
+        return admitted("match", Priority.BOOKING, List.of(request.studentId()), () -> {
+            var candidates = availabilityIndex
+                    .candidates(
+                            request.studentId(),
+                            request.fromSlotId(),
+                            request.toSlotId(),
+                            request.instructorId(),
+                            request.aircraftId())
+                    .limit(MAX_MATCH_ATTEMPTS)
+                    .iterator();
+
+            while (candidates.hasNext()) {
+                var candidate = candidates.next();
+                try {
+                    slotBooker.book(candidate.slotId(), new BookingSlotEntity.Command.BookReservation(
+                            candidate.studentId(),
+                            candidate.aircraftId(),
+                            candidate.instructorId(),
+                            request.bookingId()
+                    ));
+                    return HttpResponses.ok(new MatchResponse(
+                            candidate.slotId(),
+                            candidate.studentId(),
+                            candidate.aircraftId(),
+                            candidate.instructorId(),
+                            request.bookingId()));
+                } catch (SlotBooker.SlotNotBookableException | SlotBooker.OverlappingBookingException ex) {
+                    // only a definite rejection moves on, after a timeout the
+                    // booking may have been made and another one would double-book
+                    log.info("Candidate slot {} was rejected, trying next: {}", candidate.slotId(), ex.getMessage());
+                }
+            }
+
+            throw HttpException.error(StatusCodes.NOT_FOUND, "no bookable slot found in the requested range");
+        });
     }
 
     // Cancels an existing booking. Note that both the slot
@@ -60,32 +194,368 @@ public class FlightEndpoint extends AbstractHttpEndpoint {
     public HttpResponse cancelBooking(String slotId, String bookingId) {
         log.info("Canceling booking with id {}", bookingId);
 
-        componentClient
-                .forEventSourcedEntity(slotId)
-                .method(BookingSlotEntity::cancelBooking)
-                .invoke(bookingId);
+        return idempotent("cancel-booking " + slotId + " " + bookingId, () ->
+                admitted("cancel-booking", Priority.BOOKING, List.of(), () -> {
+                    componentClient
+                            .forEventSourcedEntity(slotId)
+                            .method(BookingSlotEntity::cancelBooking)
+                            .invoke(bookingId);
+
+                    return HttpResponses.ok();
+                }));
+    }
+
+    // Puts a student on the waitlist for a slot. The booking is made as soon
+    // as the slot becomes bookable for the student, instructor and aircraft;
+    // if it already is, it is booked straight away unless an earlier waiting
+    // request takes the same participants. The student joins before the slot
+    // is checked, so availability that arrives in between is not missed.
+    @Post("/waitlist/{slotId}")
+    public HttpResponse joinWaitlist(String slotId, BookingRequest request) {
+        log.info("Adding to waitlist for slot {}: {}", slotId, request);
+
+        var participantIds = List.of(request.studentId, request.aircraftId, request.instructorId);
+        return admitted("join-waitlist", Priority.BOOKING, participantIds, () -> {
+            componentClient
+                    .forKeyValueEntity(slotId)
+                    .method(WaitlistEntity::join)
+                    .invoke(new WaitlistEntity.Entry(
+                            request.studentId,
+                            request.aircraftId,
+                            request.instructorId,
+                            request.bookingId,
+                            Instant.now()
+                    ));
+            if (waitlistPromoter.promote(slotId).contains(request.bookingId)) {
+                return HttpResponses.created();
+            }
+
+            var waitlist = componentClient
+                    .forKeyValueEntity(slotId)
+                    .method(WaitlistEntity::getWaitlist)
+                    .invoke();
+            return HttpResponses.accepted(waitlist);
+        });
+    }
 
+    // Takes a student off the waitlist for a slot
+    @Delete("/waitlist/{slotId}/{studentId}")
+    public HttpResponse leaveWaitlist(String slotId, String studentId) {
+        log.info("Removing student {} from waitlist for slot {}", studentId, slotId);
+        componentClient
+                .forKeyValueEntity(slotId)
+                .method(WaitlistEntity::leave)
+                .invoke(studentId);
         return HttpResponses.ok();
     }
 
+    // Returns the students waiting for a slot, in the order they will be booked
+    @Get("/waitlist/{slotId}")
+    public WaitlistEntity.State getWaitlist(String slotId) {
+        return componentClient
+                .forKeyValueEntity(slotId)
+                .method(WaitlistEntity::getWaitlist)
+                .invoke();
+    }
+
+    // Returns who is in a slot, grouped by participant type. The optional
+    // `status` query parameter restricts the roster to, e.g., booked
+    // participants. Served from the view rather than the slot's entity.
+    @Get("/slots/by-slot/{slotId}")
+    public HttpResponse slotRoster(String slotId) {
+        log.info("Getting roster for slot {}", slotId);
+        var status = requestContext().queryParams().getString("status").map(FlightEndpoint::parseStatus);
+        var rows = status
+                .map(s -> componentClient.forView()
+                        .method(ParticipantSlotsView::getSlotsBySlotAndStatus)
+                        .invoke(new ParticipantSlotsView.SlotStatusInput(slotId, s)))
+                .orElseGet(() -> componentClient.forView()
+                        .method(ParticipantSlotsView::getSlotsBySlot)
+                        .invoke(slotId))
+                .slots();
+        return negotiated(SlotRoster.of(slotId, rows));
+    }
+
     // Retrieves all slots in which a given participant has the supplied status.
-    // Used to retrieve bookings and slots in which the participant is available
+    // Used to retrieve bookings and slots in which the participant is available.
+    // With `fields` set to `slotId`, `bookingId` or both only those fields
+    // are returned, which is all most clients need to list the slots. Other
+    // fields can only be requested all together.
     @Get("/slots/{participantId}/{status}")
-    public SlotList slotsByStatus(String participantId, String status) {
+    public HttpResponse slotsByStatus(String participantId, String status) {
         log.info("Attempting to get all slots by status, where participantId: {} and status: {}", participantId, status);
-        return componentClient.forView()
+        var input = new ParticipantSlotsView.ParticipantStatusInput(participantId, parseStatus(status));
+
+        var fields = requestContext().queryParams().getString("fields")
+                .map(value -> Set.of(value.replace(" ", "").split(",")))
+                .orElse(SLOT_ROW_FIELDS);
+        if (SLOT_SUMMARY_FIELDS.containsAll(fields)) {
+            var summaries = componentClient.forView()
+                    .method(ParticipantSlotsView::getSlotSummariesByParticipantAndStatus)
+                    .invoke(input);
+            if (fields.equals(SLOT_SUMMARY_FIELDS)) {
+                return negotiated(summaries);
+            }
+            return negotiated(new ParticipantSlotsView.SlotSummaryList(summaries.slots().stream()
+                    .map(summary -> new ParticipantSlotsView.SlotSummary(
+                            fields.contains("slotId") ? summary.slotId() : null,
+                            fields.contains("bookingId") ? summary.bookingId() : null))
+                    .toList()));
+        }
+        if (!fields.equals(SLOT_ROW_FIELDS)) {
+            throw HttpException.badRequest(
+                    "fields must be slotId, bookingId or both, or all of " + SLOT_ROW_FIELDS);
+        }
+        return negotiated(componentClient.forView()
                 .method(ParticipantSlotsView::getSlotsByParticipantAndStatus)
-                .invoke(new ParticipantSlotsView.ParticipantStatusInput(participantId, status));
+                .invoke(input));
+    }
+
+    private static SlotStatus parseStatus(String status) {
+        return SlotStatus.parse(status)
+                .orElseThrow(() -> HttpException.badRequest("invalid status"));
+    }
+
+    // Starts a bulk import of historical availability and bookings from an
+    // NDJSON file of schedule records, running in the background. Posting the
+    // same import ID again after a failure resumes from its last checkpoint.
+    @Post("/imports/{importId}")
+    public HttpResponse startImport(String importId, ImportRequest request) {
+        log.info("Starting import {}: {}", importId, request);
+        try {
+            return HttpResponses.accepted(scheduleImporter.start(importId, request.file(), request.parallelism()));
+        } catch (IllegalArgumentException ex) {
+            throw HttpException.badRequest(ex.getMessage());
+        } catch (IllegalStateException ex) {
+            throw HttpException.error(StatusCodes.CONFLICT, ex.getMessage());
+        }
+    }
+
+    // Returns the progress and throughput of an import
+    @Get("/imports/{importId}")
+    public ImportJobEntity.State getImport(String importId) {
+        return componentClient
+                .forKeyValueEntity(importId)
+                .method(ImportJobEntity::getState)
+                .invoke();
+    }
+
+    // Streams every row with the given status (e.g. `booked`) whose slot ID lies
+    // between the `from` and `to` query parameters, straight from the view to
+    // the response. `format` is `ndjson` (default) or `csv`, and the body is
+    // compressed when the client accepts gzip or deflate. Memory use does not grow with the
+    // size of the export and a slow client slows down the view query.
+    @Get("/export/{status}")
+    public HttpResponse exportSlots(String status) {
+        var queryParams = requestContext().queryParams();
+        SlotRowFormat format;
+        try {
+            format = SlotRowFormat.valueOf(queryParams.getString("format").orElse("ndjson").trim().toUpperCase());
+        } catch (IllegalArgumentException ex) {
+            throw HttpException.badRequest("invalid format");
+        }
+        var range = new ParticipantSlotsView.SlotRangeInput(
+                parseStatus(status),
+                queryParams.getString("from").orElse(""),
+                queryParams.getString("to").orElse("~"));
+        log.info("Exporting slots as {}: {}", format, range);
+
+        Source<ByteString, ?> body = componentClient.forView()
+                .stream(ParticipantSlotsView::streamSlotsInRange)
+                .source(range)
+                .map(format::encode);
+        if (format.header().isPresent()) {
+            body = Source.single(format.header().get()).concat(body);
+        }
+        return chunked(format.contentType(), body);
+    }
+
+    // Streams a chunked response, compressed when the client accepts gzip or deflate
+    private HttpResponse chunked(ContentType contentType, Source<ByteString, ?> body) {
+        var coding = acceptedCoding();
+        if (coding.isPresent()) {
+            return HttpResponse.create()
+                    .withEntity(HttpEntities.createChunked(contentType, body.via(coding.get().flow())))
+                    .addHeader(ContentEncoding.create(coding.get().httpEncoding()))
+                    .addHeader(RawHeader.create("Vary", "Accept-Encoding"));
+        }
+        return HttpResponse.create().withEntity(HttpEntities.createChunked(contentType, body));
+    }
+
+    private Optional<ContentCoding> acceptedCoding() {
+        return requestContext().requestHeader("Accept-Encoding")
+                .flatMap(header -> ContentCoding.negotiate(header.value()));
+    }
+
+    // Serializes a JSON response, compressing it when it is large enough for
+    // that to pay off and the client accepts gzip or deflate
+    private HttpResponse negotiated(Object body) {
+        byte[] json;
+        try {
+            json = JsonSupport.getObjectMapper().writeValueAsBytes(body);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Could not serialize response", ex);
+        }
+        var response = HttpResponse.create().addHeader(RawHeader.create("Vary", "Accept-Encoding"));
+        var coding = json.length < MIN_COMPRESSED_BYTES ? Optional.<ContentCoding>empty() : acceptedCoding();
+        if (coding.isPresent()) {
+            return response
+                    .withEntity(HttpEntities.create(ContentTypes.APPLICATION_JSON, coding.get().encode(json)))
+                    .addHeader(ContentEncoding.create(coding.get().httpEncoding()));
+        }
+        return response.withEntity(HttpEntities.create(ContentTypes.APPLICATION_JSON, json));
     }
 
-    // Returns the internal availability state for a given slot
+    // Returns the utilisation counters of a participant per day or per week
+    // (`period` is `day` or `week`). The optional `from` and `to` query
+    // parameters are dates (yyyy-MM-dd) bounding the buckets returned.
+    @Get("/utilisation/{participantId}/{period}")
+    public HttpResponse utilisation(String participantId, String period) {
+        log.info("Getting {} utilisation for participant {}", period, participantId);
+        UtilisationEntity.Period utilisationPeriod;
+        try {
+            utilisationPeriod = UtilisationEntity.Period.valueOf(period.trim().toUpperCase());
+        } catch (IllegalArgumentException ex) {
+            log.warn("Bad utilisation period {}", period);
+            throw HttpException.badRequest("invalid period");
+        }
+
+        var queryParams = requestContext().queryParams();
+        String fromBucket;
+        String toBucket;
+        try {
+            fromBucket = queryParams.getString("from")
+                    .map(date -> utilisationPeriod.bucket(LocalDate.parse(date)))
+                    .orElse("");
+            toBucket = queryParams.getString("to")
+                    .map(date -> utilisationPeriod.bucket(LocalDate.parse(date)))
+                    .orElse("~");
+        } catch (DateTimeParseException ex) {
+            throw HttpException.badRequest("from and to must be dates formatted as yyyy-MM-dd");
+        }
+
+        return negotiated(componentClient.forView()
+                .method(UtilisationView::getUtilisation)
+                .invoke(new UtilisationView.UtilisationInput(
+                        participantId, utilisationPeriod.name(), fromBucket, toBucket)));
+    }
+
+    // Returns the slots of a participant that have been archived. The optional
+    // `from` and `to` query parameters are slot IDs bounding the result.
+    @Get("/archive/{participantId}")
+    public HttpResponse getArchivedSlots(String participantId) {
+        log.info("Getting archived slots for participant {}", participantId);
+        var queryParams = requestContext().queryParams();
+        return negotiated(componentClient.forView()
+                .method(ArchivedSlotsView::getArchivedSlots)
+                .invoke(new ArchivedSlotsView.ArchiveInput(
+                        participantId,
+                        queryParams.getString("from").orElse(""),
+                        queryParams.getString("to").orElse("~"))));
+    }
+
+    // Answers free/busy questions across several participants at once, e.g.
+    // "which slots next month are this student, instructor and aircraft all
+    // available in". Only date-encoded slot IDs are indexed.
+    @Post("/free-busy")
+    public FreeBusyResponse freeBusy(FreeBusyRequest request) {
+        log.info("Free/busy query: {}", request);
+        if (request.participantIds() == null || request.participantIds().isEmpty()) {
+            throw HttpException.badRequest("at least one participantId is required");
+        }
+        ParticipantBitmapIndex.Status status;
+        ParticipantBitmapIndex.Mode mode;
+        try {
+            status = ParticipantBitmapIndex.Status.valueOf(request.status().trim().toUpperCase());
+            mode = request.mode() == null
+                    ? ParticipantBitmapIndex.Mode.ALL
+                    : ParticipantBitmapIndex.Mode.valueOf(request.mode().trim().toUpperCase());
+        } catch (IllegalArgumentException | NullPointerException ex) {
+            log.warn("Bad free/busy status {} or mode {}", request.status(), request.mode());
+            throw HttpException.badRequest("invalid status or mode");
+        }
+        try {
+            return new FreeBusyResponse(bitmapIndex.query(
+                    request.participantIds(), status, mode, request.fromSlotId(), request.toSlotId()));
+        } catch (IllegalArgumentException ex) {
+            throw HttpException.badRequest(ex.getMessage());
+        }
+    }
+
+    // Returns the internal availability state for a given slot. The response
+    // carries the slot's version as an ETag, and a request whose If-None-Match
+    // matches the current version is answered with 304 Not Modified.
     @Get("/availability/{slotId}")
-    public Timeslot getSlot(String slotId) {
+    public HttpResponse getSlot(String slotId) {
         log.info("Attempting to get all slots by slotId, where slotId: {}", slotId);
-        return componentClient
+        var knownVersion = requestContext().requestHeader("If-None-Match")
+                .map(header -> parseVersion(header.value()))
+                .orElse(-1L);
+
+        var versioned = componentClient
                 .forEventSourcedEntity(slotId)
-                .method(BookingSlotEntity::getSlot)
-                .invoke();
+                .method(BookingSlotEntity::getSlotIfModified)
+                .invoke(knownVersion);
+
+        var etag = RawHeader.create("ETag", "\"" + versioned.version() + "\"");
+        if (versioned.timeslot() == null) {
+            return HttpResponse.create().withStatus(StatusCodes.NOT_MODIFIED).addHeader(etag);
+        }
+        return HttpResponses.ok(versioned.timeslot()).addHeader(etag);
+    }
+
+    // Returns the state of several slots in one response, e.g. for a planner
+    // grid. The body lists the `slotIds`, or gives `from` and `to` slot IDs to
+    // read every hourly slot in between. The slots are read concurrently, and
+    // with `?stream=true` each one is sent as an NDJSON line as soon as it has
+    // been read, in no particular order. Snapshots go through admission
+    // control as bulk traffic on their own route, so large grids cannot crowd
+    // out bookings. A streamed snapshot holds its concurrency slot until the
+    // stream has ended.
+    @Post("/snapshot")
+    public HttpResponse getSnapshot(SnapshotRequest request) {
+        return snapshot(request.slotIds(), request.from(), request.to());
+    }
+
+    // The same for every hourly slot between the `from` and `to` query parameters
+    @Get("/snapshot")
+    public HttpResponse getSnapshotRange() {
+        var queryParams = requestContext().queryParams();
+        return snapshot(null, queryParams.getString("from").orElse(null), queryParams.getString("to").orElse(null));
+    }
+
+    private HttpResponse snapshot(List<String> requestedSlotIds, String from, String to) {
+        List<String> slotIds;
+        try {
+            slotIds = snapshotReader.slotIds(requestedSlotIds, from, to);
+        } catch (IllegalArgumentException ex) {
+            throw HttpException.badRequest(ex.getMessage());
+        }
+        log.info("Reading a snapshot of {} slots", slotIds.size());
+
+        var streamed = requestContext().queryParams().getString("stream").map(Boolean::parseBoolean).orElse(false);
+        if (streamed) {
+            return admittedStream("snapshot", Priority.BULK, SlotRowFormat.NDJSON.contentType(), () ->
+                    snapshotReader.stream(slotIds).map(slot ->
+                            ByteString.fromArray(JsonSupport.getObjectMapper().writeValueAsBytes(slot))
+                                    .concat(ByteString.fromString("\n"))));
+        }
+        return admitted("snapshot", Priority.BULK, List.of(), () ->
+                negotiated(new SnapshotResponse(snapshotReader.read(slotIds).toCompletableFuture().join())));
+    }
+
+    // Extracts the version from the first entity tag of an If-None-Match
+    // header, e.g. `"12"` or `W/"12"`. Anything else never matches.
+    private long parseVersion(String ifNoneMatch) {
+        var tag = ifNoneMatch.split(",")[0].trim();
+        if (tag.startsWith("W/")) {
+            tag = tag.substring(2);
+        }
+        try {
+            return Long.parseLong(tag.replace("\"", ""));
+        } catch (NumberFormatException ex) {
+            return -1L;
+        }
     }
 
     // Indicates that the supplied participant is available for booking
@@ -105,12 +575,15 @@ public class FlightEndpoint extends AbstractHttpEndpoint {
 
         var participant = new Participant(request.participantId, participantType);
 
-        componentClient
-                .forEventSourcedEntity(slotId)
-                .method(BookingSlotEntity::markSlotAvailable)
-                .invoke(new BookingSlotEntity.Command.MarkSlotAvailable(participant));
+        return idempotent("mark-available " + slotId + " " + participant, () ->
+                admitted("mark-available", Priority.BULK, List.of(participant.id()), () -> {
+                    componentClient
+                            .forEventSourcedEntity(slotId)
+                            .method(BookingSlotEntity::markSlotAvailable)
+                            .invoke(new BookingSlotEntity.Command.MarkSlotAvailable(participant));
 
-        return HttpResponses.ok();
+                    return HttpResponses.ok();
+                }));
     }
 
     // Unmarks a slot as available for the given participant.
@@ -126,12 +599,145 @@ public class FlightEndpoint extends AbstractHttpEndpoint {
 
         var participant = new Participant(request.participantId, participantType);
 
-        componentClient
-                .forEventSourcedEntity(slotId)
-                .method(BookingSlotEntity::unmarkSlotAvailable)
-                .invoke(new BookingSlotEntity.Command.UnmarkSlotAvailable(participant));
+        return idempotent("unmark-available " + slotId + " " + participant, () ->
+                admitted("unmark-available", Priority.BULK, List.of(participant.id()), () -> {
+                    componentClient
+                            .forEventSourcedEntity(slotId)
+                            .method(BookingSlotEntity::unmarkSlotAvailable)
+                            .invoke(new BookingSlotEntity.Command.UnmarkSlotAvailable(participant));
 
-        return HttpResponses.ok();
+                    return HttpResponses.ok();
+                }));
+    }
+
+    // Runs a call only if the admission controller lets it through, otherwise
+    // fails fast with 429 Too Many Requests and a Retry-After hint
+    private HttpResponse admitted(
+            String route, Priority priority, List<String> participantIds, Supplier<HttpResponse> call) {
+        var admission = admissionController.tryAdmit(route, priority, participantIds);
+        if (!admission.admitted()) {
+            return rejected(route, participantIds, admission);
+        }
+        try (admission) {
+            return call.get();
+        }
+    }
+
+    // The same for a chunked response, whose admission is held until its
+    // stream has completed, failed or been cancelled by the client
+    private HttpResponse admittedStream(
+            String route, Priority priority, ContentType contentType, Supplier<Source<ByteString, ?>> stream) {
+        var admission = admissionController.tryAdmit(route, priority, List.of());
+        if (!admission.admitted()) {
+            return rejected(route, List.of(), admission);
+        }
+        try {
+            return chunked(contentType, stream.get().watchTermination((mat, done) -> {
+                done.whenComplete((d, ex) -> admission.close());
+                return mat;
+            }));
+        } catch (RuntimeException ex) {
+            admission.close();
+            throw ex;
+        }
+    }
+
+    private HttpResponse rejected(String route, List<String> participantIds, AdmissionController.Admission admission) {
+        log.warn("Rejecting {} request for participants {}, retry after {}s",
+                route, participantIds, admission.retryAfterSeconds());
+        return HttpResponse.create()
+                .withStatus(StatusCodes.TOO_MANY_REQUESTS)
+                .addHeader(RawHeader.create("Retry-After", Long.toString(admission.retryAfterSeconds())));
+    }
+
+    // Runs a write at most once per `Idempotency-Key` header. The key is first
+    // reserved in the IdempotencyKeyEntity, so a retry that arrives while the
+    // original is still running is answered with 409 instead of running the
+    // write again. A retry carrying a key that has already completed is
+    // answered from the recorded result (first from the in-memory cache, then
+    // from the entity) without touching the booking slot entity again.
+    // Rejections are recorded like successes; a 429, which is answered
+    // before the write starts, releases the key instead. When the outcome is
+    // unknown (a server error or a timeout, after which the booking may still
+    // have been committed) the reservation is kept, so a retry gets 409 until
+    // it lapses after the in-progress timeout rather than writing again.
+    private HttpResponse idempotent(String fingerprint, Supplier<HttpResponse> write) {
+        var header = requestContext().requestHeader(IDEMPOTENCY_KEY_HEADER);
+        if (header.isEmpty()) {
+            return write.get();
+        }
+        var key = header.get().value();
+
+        var cached = idempotencyCache.get(key);
+        if (cached.isPresent()) {
+            return replay(key, fingerprint, cached.get());
+        }
+        var reservation = idempotencyCache.newReservation(fingerprint);
+        var recorded = componentClient
+                .forKeyValueEntity(key)
+                .method(IdempotencyKeyEntity::reserve)
+                .invoke(reservation);
+        if (!recorded.reservationId().equals(reservation.reservationId())) {
+            idempotencyCache.put(key, recorded);
+            return replay(key, fingerprint, recorded);
+        }
+
+        HttpResponse response;
+        try {
+            response = write.get();
+        } catch (HttpException ex) {
+            settle(key, reservation, ex.getStatusCode().intValue());
+            throw ex;
+        } catch (IllegalArgumentException ex) {
+            settle(key, reservation, StatusCodes.BAD_REQUEST.intValue());
+            throw ex;
+        }
+        settle(key, reservation, response.status().intValue());
+        return response;
+    }
+
+    // Completes a reserved key with the status of its write, releases it on
+    // 429 or leaves it reserved on a server error
+    private void settle(String key, IdempotencyKeyEntity.Result reservation, int statusCode) {
+        if (statusCode == StatusCodes.TOO_MANY_REQUESTS.intValue()) {
+            componentClient
+                    .forKeyValueEntity(key)
+                    .method(IdempotencyKeyEntity::release)
+                    .invoke(reservation.reservationId());
+            return;
+        }
+        if (statusCode >= 500) {
+            return;
+        }
+        var result = componentClient
+                .forKeyValueEntity(key)
+                .method(IdempotencyKeyEntity::complete)
+                .invoke(idempotencyCache.newResult(reservation, statusCode));
+        idempotencyCache.put(key, result);
+        timerScheduler.createSingleTimer(
+                IdempotencyKeyExpiryAction.timerName(key),
+                Duration.between(Instant.now(), result.expiresAt()),
+                componentClient.forTimedAction()
+                        .method(IdempotencyKeyExpiryAction::expire)
+                        .deferred(key));
+    }
+
+    private HttpResponse replay(String key, String fingerprint, IdempotencyKeyEntity.Result result) {
+        if (!result.fingerprint().equals(fingerprint)) {
+            log.warn("Idempotency key {} reused for a different request: {}", key, fingerprint);
+            throw HttpException.error(
+                    StatusCodes.UNPROCESSABLE_ENTITY, "Idempotency-Key was already used for a different request");
+        }
+        if (result.inProgress()) {
+            log.info("Request with idempotency key {} is still in progress", key);
+            return HttpResponse.create()
+                    .withStatus(StatusCodes.CONFLICT)
+                    .addHeader(RawHeader.create("Retry-After", "1"));
+        }
+        log.info("Replaying recorded result for idempotency key {}", key);
+        return HttpResponse.create()
+                .withStatus(result.statusCode())
+                .addHeader(RawHeader.create(IDEMPOTENT_REPLAYED_HEADER, "true"));
     }
 
     // Public API representation of a booking request
@@ -139,6 +745,72 @@ public class FlightEndpoint extends AbstractHttpEndpoint {
             String studentId, String aircraftId, String instructorId, String bookingId) {
     }
 
+    // Public API representation of a match request. The instructor and
+    // aircraft IDs are optional preferences and may be null.
+    public record MatchRequest(
+            String studentId,
+            String fromSlotId,
+            String toSlotId,
+            String instructorId,
+            String aircraftId,
+            String bookingId) {
+    }
+
+    // Public API representation of the booking made by a match request
+    public record MatchResponse(
+            String slotId, String studentId, String aircraftId, String instructorId, String bookingId) {
+    }
+
+    // Public API representation of a free/busy query. Status is one of
+    // `available` or `booked`, mode is `all` (intersection, the default) or
+    // `any` (union) and the slot range uses date-encoded slot IDs.
+    public record FreeBusyRequest(
+            List<String> participantIds, String status, String mode, String fromSlotId, String toSlotId) {
+    }
+
+    public record FreeBusyResponse(List<String> slotIds) {
+    }
+
+    // Public API representation of a snapshot request. Either the slot IDs
+    // are listed or `from` and `to` give a range of date-encoded slot IDs.
+    public record SnapshotRequest(List<String> slotIds, String from, String to) {
+    }
+
+    public record SnapshotResponse(List<SlotSnapshotReader.SlotSnapshot> slots) {
+    }
+
+    // Public API representation of a slot's participants, grouped by type
+    public record SlotRoster(
+            String slotId,
+            List<RosterEntry> students,
+            List<RosterEntry> instructors,
+            List<RosterEntry> aircraft) {
+
+        static SlotRoster of(String slotId, List<ParticipantSlotsView.SlotRow> rows) {
+            return new SlotRoster(
+                    slotId,
+                    entries(rows, ParticipantType.STUDENT),
+                    entries(rows, ParticipantType.INSTRUCTOR),
+                    entries(rows, ParticipantType.AIRCRAFT));
+        }
+
+        private static List<RosterEntry> entries(List<ParticipantSlotsView.SlotRow> rows, ParticipantType type) {
+            return rows.stream()
+                    .filter(row -> row.participantType().equals(type.name()))
+                    .map(row -> new RosterEntry(row.participantId(), row.status(), row.bookingId()))
+                    .toList();
+        }
+    }
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public record RosterEntry(String participantId, SlotStatus status, String bookingId) {
+    }
+
+    // Public API representation of a schedule import request. The file is
+    // relative to the configured import directory; parallelism is optional.
+    public record ImportRequest(String file, Integer parallelism) {
+    }
+
     // Public API representation of an availability mark/unmark request
     public record AvailabilityRequest(String participantId, String participantType) {
     }
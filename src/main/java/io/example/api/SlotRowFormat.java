@@ -0,0 +1,58 @@
+package io.example.api;
+
+import akka.http.javadsl.model.ContentType;
+import akka.http.javadsl.model.ContentTypes;
+import akka.http.javadsl.model.HttpCharsets;
+import akka.http.javadsl.model.MediaTypes;
+import akka.javasdk.JsonSupport;
+import akka.util.ByteString;
+import io.example.application.ParticipantSlotsView.SlotRow;
+import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+// Line-oriented encodings of view rows used by the streaming export. Each
+// row is encoded on its own, so an export never holds more than one row.
+public enum SlotRowFormat {
+    NDJSON(ContentTypes.create(MediaTypes.applicationWithFixedCharset("x-ndjson", HttpCharsets.UTF_8))),
+    CSV(ContentTypes.TEXT_CSV_UTF8);
+
+    private final ContentType contentType;
+
+    SlotRowFormat(ContentType contentType) {
+        this.contentType = contentType;
+    }
+
+    public ContentType contentType() {
+        return contentType;
+    }
+
+    // The line written before the first row, if any
+    public Optional<ByteString> header() {
+        return switch (this) {
+            case NDJSON -> Optional.empty();
+            case CSV -> Optional.of(ByteString.fromString("slotId,participantId,participantType,bookingId,status\n"));
+        };
+    }
+
+    public ByteString encode(SlotRow row) throws Exception {
+        return switch (this) {
+            case NDJSON -> ByteString.fromArray(JsonSupport.getObjectMapper().writeValueAsBytes(row))
+                    .concat(ByteString.fromString("\n"));
+            case CSV -> ByteString.fromString(
+                    Stream.of(row.slotId(), row.participantId(), row.participantType(), row.bookingId(), row.status().name())
+                            .map(SlotRowFormat::csvField)
+                            .collect(Collectors.joining(",", "", "\n")));
+        };
+    }
+
+    private static String csvField(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.contains(",") || value.contains("\"") || value.contains("\n")) {
+            return "\"" + value.replace("\"", "\"\"") + "\"";
+        }
+        return value;
+    }
+}
@@ -0,0 +1,50 @@
+package io.example.api;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+// A lock-free token bucket. It is implemented as the equivalent generic cell
+// rate algorithm, which tracks a single "theoretical arrival time" instead of
+// a token count and refill timestamp. The whole state then fits in one
+// AtomicLong and an acquire is a read plus a compare-and-set.
+public class TokenBucket {
+
+    // nanoseconds it takes to refill one token
+    private final long emissionInterval;
+    // how far ahead of now the arrival time may run, i.e. the burst size
+    private final long burstTolerance;
+
+    private final AtomicLong theoreticalArrival;
+
+    public TokenBucket(double ratePerSecond, int burst, long nowNanos) {
+        this.emissionInterval = (long) (1_000_000_000L / ratePerSecond);
+        this.burstTolerance = emissionInterval * burst;
+        this.theoreticalArrival = new AtomicLong(nowNanos);
+    }
+
+    // Takes a token if one is available and returns 0, otherwise returns the
+    // number of nanoseconds until the next token becomes available
+    public long tryAcquire(long nowNanos) {
+        while (true) {
+            var arrival = theoreticalArrival.get();
+            var next = Math.max(arrival, nowNanos) + emissionInterval;
+            var wait = next - nowNanos - burstTolerance;
+            if (wait > 0) {
+                return wait;
+            }
+            if (theoreticalArrival.compareAndSet(arrival, next)) {
+                return 0;
+            }
+        }
+    }
+
+    // Gives back a token taken by tryAcquire, e.g. when a later check rejects
+    // the request it was taken for
+    public void refund() {
+        theoreticalArrival.addAndGet(-emissionInterval);
+    }
+
+    // A bucket that has refilled completely holds no state worth keeping
+    public boolean isFull(long nowNanos) {
+        return theoreticalArrival.get() <= nowNanos;
+    }
+}
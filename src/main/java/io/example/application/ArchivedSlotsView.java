@@ -0,0 +1,61 @@
+package io.example.application;
+
+import akka.javasdk.annotations.ComponentId;
+import akka.javasdk.annotations.Consume;
+import akka.javasdk.annotations.Query;
+import akka.javasdk.view.TableUpdater;
+import akka.javasdk.view.View;
+import io.example.application.ParticipantSlotEntity.Event.Archived;
+import io.example.domain.SlotStatus;
+import java.util.List;
+
+// Compact read model of slots that have passed the archival horizon. Only
+// the final status of each participant slot is kept, the hot
+// ParticipantSlotsView drops the row once the slot is archived.
+@ComponentId("view-archived-slots")
+public class ArchivedSlotsView extends View {
+
+    @Consume.FromEventSourcedEntity(ParticipantSlotEntity.class)
+    public static class ArchivedSlotsViewUpdater extends TableUpdater<ArchivedSlotRow> {
+
+        public Effect<ArchivedSlotRow> onEvent(ParticipantSlotEntity.Event event) {
+            return switch (event) {
+                case Archived archived -> effects().updateRow(
+                        new ArchivedSlotRow(
+                                archived.slotId(),
+                                archived.participantId(),
+                                archived.participantType().name(),
+                                archived.bookingId(),
+                                archived.status()
+                        )
+                );
+                default -> effects().ignore();
+            };
+        }
+    }
+
+    public record ArchivedSlotRow(
+            String slotId,
+            String participantId,
+            String participantType,
+            String bookingId,
+            SlotStatus status) {
+    }
+
+    public record ArchiveInput(String participantId, String fromSlotId, String toSlotId) {
+    }
+
+    public record ArchivedSlotList(List<ArchivedSlotRow> slots) {
+    }
+
+    @Query(
+       """
+       SELECT * as slots FROM archived_slots_view
+       WHERE participantId = :participantId
+         AND slotId >= :fromSlotId AND slotId <= :toSlotId
+       ORDER BY slotId"""
+    )
+    public QueryEffect<ArchivedSlotList> getArchivedSlots(ArchiveInput input) {
+        return queryResult();
+    }
+}
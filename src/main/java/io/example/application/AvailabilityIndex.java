@@ -0,0 +1,137 @@
+package io.example.application;
+
+import io.example.domain.Participant;
+import io.example.domain.Participant.ParticipantType;
+import io.example.domain.SlotIds;
+import io.example.domain.SlotStatus;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.stream.Stream;
+
+// An in-memory index of which participants are currently available in
+// which slots. It follows the rows of the ParticipantSlotsView, each node
+// holding its own copy fed by its own live query (see Bootstrap), and lets
+// the endpoint find booking candidates without loading every
+// BookingSlotEntity in a range. The index is only a hint: the entity remains
+// the authority and a candidate found here may already be gone by the time
+// it is booked, so callers must be prepared for the booking to be rejected.
+public class AvailabilityIndex {
+
+    // slotId -> participants available in that slot, per type
+    private final Map<String, SlotAvailability> slots = new ConcurrentHashMap<>();
+
+    // participant -> ordered slot IDs in which that participant is available
+    private final Map<Participant, NavigableSet<String>> slotsByParticipant = new ConcurrentHashMap<>();
+
+    // Applies the latest row of a participant in a slot. Booked and canceled
+    // participants are not available, as canceling does not make them
+    // available again (see Timeslot.cancelBooking).
+    public void apply(ParticipantSlotsView.SlotRow row) {
+        var participant = new Participant(row.participantId(), ParticipantType.valueOf(row.participantType()));
+        if (row.status() == SlotStatus.AVAILABLE) {
+            markAvailable(row.slotId(), participant);
+        } else {
+            markUnavailable(row.slotId(), participant);
+        }
+    }
+
+    public void markAvailable(String slotId, Participant participant) {
+        slots.computeIfAbsent(slotId, id -> new SlotAvailability()).add(participant);
+        slotsByParticipant
+                .computeIfAbsent(participant, p -> new ConcurrentSkipListSet<>())
+                .add(slotId);
+    }
+
+    public void markUnavailable(String slotId, Participant participant) {
+        var slot = slots.get(slotId);
+        if (slot != null) {
+            slot.remove(participant);
+        }
+        var participantSlots = slotsByParticipant.get(participant);
+        if (participantSlots != null) {
+            participantSlots.remove(slotId);
+        }
+    }
+
+    // Forgets every date-encoded slot before the given one, e.g. once it has
+    // been archived and its rows have left the view
+    public void dropBefore(String slotId) {
+        slots.keySet().removeIf(id -> SlotIds.isDateEncoded(id) && id.compareTo(slotId) < 0);
+        for (NavigableSet<String> participantSlots : slotsByParticipant.values()) {
+            participantSlots.headSet(slotId).removeIf(SlotIds::isDateEncoded);
+        }
+    }
+
+    public boolean isAvailable(String slotId, Participant participant) {
+        var slot = slots.get(slotId);
+        return slot != null && slot.contains(participant);
+    }
+
+    // Returns, in slot ID order, every slot in [fromSlotId, toSlotId] in which
+    // the student, an instructor and an aircraft are all available. When an
+    // instructor or aircraft ID is supplied only that participant is considered,
+    // otherwise the first available one (by ID) is picked. The stream is lazy, so
+    // callers that stop at the first successful booking only pay for what they use.
+    public Stream<Candidate> candidates(
+            String studentId, String fromSlotId, String toSlotId, String instructorId, String aircraftId) {
+        var studentSlots = slotsByParticipant.get(new Participant(studentId, ParticipantType.STUDENT));
+        if (studentSlots == null || fromSlotId.compareTo(toSlotId) > 0) {
+            return Stream.empty();
+        }
+        return studentSlots.subSet(fromSlotId, true, toSlotId, true).stream()
+                .flatMap(slotId -> candidate(slotId, studentId, instructorId, aircraftId).stream());
+    }
+
+    private Optional<Candidate> candidate(
+            String slotId, String studentId, String instructorId, String aircraftId) {
+        var slot = slots.get(slotId);
+        if (slot == null) {
+            return Optional.empty();
+        }
+        var instructor = slot.pick(ParticipantType.INSTRUCTOR, instructorId);
+        var aircraft = slot.pick(ParticipantType.AIRCRAFT, aircraftId);
+        if (instructor.isEmpty() || aircraft.isEmpty()) {
+            return Optional.empty();
+        }
+        return Optional.of(new Candidate(slotId, studentId, instructor.get(), aircraft.get()));
+    }
+
+    public record Candidate(String slotId, String studentId, String instructorId, String aircraftId) {
+    }
+
+    // The participants available in a single slot. The per-type sets are
+    // created up front so the map itself is never mutated after construction.
+    private static final class SlotAvailability {
+        private final Map<ParticipantType, NavigableSet<String>> byType = new EnumMap<>(ParticipantType.class);
+
+        SlotAvailability() {
+            for (ParticipantType type : ParticipantType.values()) {
+                byType.put(type, new ConcurrentSkipListSet<>());
+            }
+        }
+
+        void add(Participant participant) {
+            byType.get(participant.participantType()).add(participant.id());
+        }
+
+        void remove(Participant participant) {
+            byType.get(participant.participantType()).remove(participant.id());
+        }
+
+        boolean contains(Participant participant) {
+            return byType.get(participant.participantType()).contains(participant.id());
+        }
+
+        Optional<String> pick(ParticipantType type, String preferredId) {
+            var available = byType.get(type);
+            if (preferredId != null) {
+                return available.contains(preferredId) ? Optional.of(preferredId) : Optional.empty();
+            }
+            return available.stream().findFirst();
+        }
+    }
+}
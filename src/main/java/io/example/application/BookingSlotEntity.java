@@ -6,7 +6,9 @@ import akka.javasdk.eventsourcedentity.EventSourcedEntity;
 import akka.javasdk.eventsourcedentity.EventSourcedEntityContext;
 import io.example.domain.BookingEvent;
 import io.example.domain.Participant;
+import io.example.domain.ScheduleRecord;
 import io.example.domain.Timeslot;
+import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
 import java.util.stream.Collectors;
@@ -105,10 +107,101 @@ public class BookingSlotEntity extends EventSourcedEntity<Timeslot, BookingEvent
 
     }
 
+    // Takes back a booking that could not keep its participants, e.g. because
+    // one of them turned out to be booked in an overlapping slot. Unlike a
+    // cancellation, the participants are made available in the slot again,
+    // in the same write. Reverting a booking that is not held is not an
+    // error, so the compensation can be retried.
+    public Effect<Done> revertBooking(String bookingId) {
+        logger.info("Received command to revert booking, with bookingId: {}", bookingId);
+        var bookings = currentState().findBooking(bookingId);
+        if (bookings.isEmpty()) {
+            return effects().reply(Done.getInstance());
+        }
+
+        var events = new ArrayList<BookingEvent>();
+        for (Timeslot.Booking booking : bookings) {
+            events.add(new BookingEvent.ParticipantCanceled(
+                    entityId, booking.participant().id(), booking.participant().participantType(), bookingId));
+        }
+        for (Timeslot.Booking booking : bookings) {
+            events.add(new BookingEvent.ParticipantMarkedAvailable(
+                    entityId, booking.participant().id(), booking.participant().participantType()));
+        }
+        return effects()
+                .persistAll(events)
+                .thenReply(newState -> Done.getInstance());
+    }
+
+    // Applies a batch of historical records for this slot in a single command,
+    // replying with the number of events written. Imported bookings are trusted
+    // and do not require prior availability. Records that are already reflected
+    // in the state (participants already available, booking IDs already present)
+    // are skipped, so re-running a batch after a failed import is harmless.
+    public Effect<Integer> importSchedule(Command.ImportSchedule cmd) {
+        logger.info("Received import of {} records for slot {}", cmd.records().size(), entityId);
+        var available = new HashSet<>(currentState().available());
+        var bookingIds = new HashSet<String>();
+        var booked = new HashSet<Participant>();
+        currentState().bookings().forEach(booking -> {
+            bookingIds.add(booking.bookingId());
+            booked.add(booking.participant());
+        });
+
+        var events = new ArrayList<BookingEvent>();
+        for (ScheduleRecord record : cmd.records()) {
+            switch (record) {
+                case ScheduleRecord.Availability availability -> {
+                    var participant = new Participant(availability.participantId(), availability.participantType());
+                    // availability records that precede a booking in the file
+                    // are already consumed by it when a chunk is replayed
+                    if (!booked.contains(participant) && available.add(participant)) {
+                        events.add(new BookingEvent.ParticipantMarkedAvailable(
+                                entityId, participant.id(), participant.participantType()));
+                    }
+                }
+                case ScheduleRecord.Booking booking -> {
+                    if (bookingIds.add(booking.bookingId())) {
+                        events.add(new BookingEvent.ParticipantBooked(
+                                entityId, booking.studentId(), Participant.ParticipantType.STUDENT, booking.bookingId()));
+                        events.add(new BookingEvent.ParticipantBooked(
+                                entityId, booking.instructorId(), Participant.ParticipantType.INSTRUCTOR, booking.bookingId()));
+                        events.add(new BookingEvent.ParticipantBooked(
+                                entityId, booking.aircraftId(), Participant.ParticipantType.AIRCRAFT, booking.bookingId()));
+                        var participants = List.of(
+                                new Participant(booking.studentId(), Participant.ParticipantType.STUDENT),
+                                new Participant(booking.instructorId(), Participant.ParticipantType.INSTRUCTOR),
+                                new Participant(booking.aircraftId(), Participant.ParticipantType.AIRCRAFT));
+                        available.removeAll(participants);
+                        booked.addAll(participants);
+                    }
+                }
+            }
+        }
+
+        if (events.isEmpty()) {
+            return effects().reply(0);
+        }
+        return effects()
+                .persistAll(events)
+                .thenReply(newState -> events.size());
+    }
+
     public ReadOnlyEffect<Timeslot> getSlot() {
         return effects().reply(currentState());
     }
 
+    // The version of a slot is the sequence number of its last event. When the
+    // caller already holds the current version only the version is returned,
+    // so an unchanged slot is never serialized.
+    public ReadOnlyEffect<VersionedTimeslot> getSlotIfModified(long knownVersion) {
+        var version = commandContext().sequenceNumber();
+        if (version == knownVersion) {
+            return effects().reply(new VersionedTimeslot(version, null));
+        }
+        return effects().reply(new VersionedTimeslot(version, currentState()));
+    }
+
     @Override
     public Timeslot emptyState() {
         return new Timeslot(
@@ -132,6 +225,10 @@ public class BookingSlotEntity extends EventSourcedEntity<Timeslot, BookingEvent
         };
     }
 
+    // The timeslot is null when it has not changed since the known version
+    public record VersionedTimeslot(long version, Timeslot timeslot) {
+    }
+
     public sealed interface Command {
         record MarkSlotAvailable(Participant participant) implements Command {
         }
@@ -143,5 +240,8 @@ public class BookingSlotEntity extends EventSourcedEntity<Timeslot, BookingEvent
                 String studentId, String aircraftId, String instructorId, String bookingId)
                 implements Command {
         }
+
+        record ImportSchedule(List<ScheduleRecord> records) implements Command {
+        }
     }
 }
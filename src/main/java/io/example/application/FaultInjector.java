@@ -0,0 +1,67 @@
+package io.example.application;
+
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Injects failures into ParticipantSlotEntity calls so resilience tests can
+// reproduce restarts and redelivery. A failure before a call acts as a lost
+// request: the caller fails and retries, e.g. the consumer restarts and
+// redelivers the event. A failure after a call acts as a lost reply: the
+// command was applied, yet the caller retries it. Only participant slots
+// whose IDs start with the configured prefix are affected. Whether a call
+// fails depends only on the seed, the point and the call itself, not on
+// timing, so every run fails the same calls. A failed call always gets
+// through when it is retried. With a failure rate of zero, the default,
+// nothing is ever injected.
+public class FaultInjector {
+
+    public enum Point {
+        BEFORE_CALL,
+        AFTER_CALL
+    }
+
+    private final double failureRate;
+    private final String slotPrefix;
+    private final long seed;
+    // calls that failed and have not been retried yet
+    private final Set<String> failed = ConcurrentHashMap.newKeySet();
+    private final AtomicLong injected = new AtomicLong();
+
+    public FaultInjector(double failureRate, String slotPrefix, long seed) {
+        this.failureRate = failureRate;
+        this.slotPrefix = slotPrefix;
+        this.seed = seed;
+    }
+
+    // `call` identifies the call, e.g. the event being handled, and must
+    // have a stable toString
+    public void maybeFail(Point point, String participantSlotId, Object call) {
+        if (failureRate <= 0 || !participantSlotId.startsWith(slotPrefix)) {
+            return;
+        }
+        var key = point + " " + participantSlotId + " " + call;
+        if (failed.remove(key) || draw(key) >= failureRate) {
+            return;
+        }
+        failed.add(key);
+        injected.incrementAndGet();
+        throw new InjectedFault(point + " for " + participantSlotId + ": " + call);
+    }
+
+    public long injected() {
+        return injected.get();
+    }
+
+    // A number in [0, 1) fixed by the seed and the key
+    private double draw(String key) {
+        return new SplittableRandom(seed * 31 + key.hashCode()).nextDouble();
+    }
+
+    public static class InjectedFault extends RuntimeException {
+        public InjectedFault(String message) {
+            super(message);
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package io.example.application;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+// A bounded, time-expiring, in-memory cache of the results recorded for
+// idempotency keys. It answers most retries without a round trip to the
+// IdempotencyKeyEntity; the least recently used keys are evicted once the
+// cache is full and results past their expiry are treated as absent. Only
+// completed results are cached, never reservations of writes in progress.
+public class IdempotencyCache {
+
+    private final int maxEntries;
+    private final Duration ttl;
+    private final Duration inProgressTimeout;
+    private final Clock clock;
+
+    private final Map<String, IdempotencyKeyEntity.Result> entries;
+
+    public IdempotencyCache(int maxEntries, Duration ttl, Duration inProgressTimeout, Clock clock) {
+        this.maxEntries = maxEntries;
+        this.ttl = ttl;
+        this.inProgressTimeout = inProgressTimeout;
+        this.clock = clock;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, IdempotencyKeyEntity.Result> eldest) {
+                return size() > IdempotencyCache.this.maxEntries;
+            }
+        };
+    }
+
+    // Creates a reservation for a request starting now. It lapses after the
+    // in-progress timeout unless the request completes it first.
+    public IdempotencyKeyEntity.Result newReservation(String fingerprint) {
+        return new IdempotencyKeyEntity.Result(
+                fingerprint,
+                IdempotencyKeyEntity.Result.IN_PROGRESS,
+                clock.instant().plus(inProgressTimeout),
+                UUID.randomUUID().toString());
+    }
+
+    // Creates the result of a reserved request completed now, expiring after the TTL
+    public IdempotencyKeyEntity.Result newResult(IdempotencyKeyEntity.Result reservation, int statusCode) {
+        return new IdempotencyKeyEntity.Result(
+                reservation.fingerprint(), statusCode, clock.instant().plus(ttl), reservation.reservationId());
+    }
+
+    public synchronized Optional<IdempotencyKeyEntity.Result> get(String key) {
+        var result = entries.get(key);
+        if (result == null) {
+            return Optional.empty();
+        }
+        if (isExpired(result)) {
+            entries.remove(key);
+            return Optional.empty();
+        }
+        return Optional.of(result);
+    }
+
+    public synchronized void put(String key, IdempotencyKeyEntity.Result result) {
+        if (!result.inProgress() && !isExpired(result)) {
+            entries.put(key, result);
+        }
+    }
+
+    public boolean isExpired(IdempotencyKeyEntity.Result result) {
+        return !result.expiresAt().isAfter(clock.instant());
+    }
+}
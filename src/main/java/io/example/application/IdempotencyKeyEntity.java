@@ -0,0 +1,86 @@
+package io.example.application;
+
+import akka.Done;
+import akka.javasdk.annotations.ComponentId;
+import akka.javasdk.keyvalueentity.KeyValueEntity;
+import java.time.Instant;
+import java.util.Optional;
+
+// Durable record of a write made with an `Idempotency-Key` header, keyed by
+// that key. A write first reserves the key, so a retry that arrives while
+// the original is still running finds it in progress instead of running the
+// write a second time, and then completes it with the outcome. It backs the
+// in-memory IdempotencyCache so that retries are still recognised after a
+// restart or on another node. Keys are deleted by IdempotencyKeyExpiryAction
+// once their result has expired.
+@ComponentId("idempotency-key")
+public class IdempotencyKeyEntity extends KeyValueEntity<IdempotencyKeyEntity.Result> {
+
+    // Reserves the key unless an unexpired reservation or result is already
+    // on record, and replies with whichever is now on record (first writer
+    // wins). The caller holds the key when its own reservation ID comes back.
+    public Effect<Result> reserve(Result reservation) {
+        if (currentState() != null && currentState().expiresAt().isAfter(Instant.now())) {
+            return effects().reply(currentState());
+        }
+        return effects()
+                .updateState(reservation)
+                .thenReply(reservation);
+    }
+
+    // Replaces the caller's reservation with the outcome of its write. If the
+    // reservation has meanwhile lapsed and been taken by another request,
+    // that request's record is kept and returned.
+    public Effect<Result> complete(Result result) {
+        if (!holds(result.reservationId())) {
+            return effects().reply(currentState());
+        }
+        return effects()
+                .updateState(result)
+                .thenReply(result);
+    }
+
+    // Gives up the caller's reservation, e.g. after a failure that a retry
+    // could get past, so that the retry runs the write again
+    public Effect<Done> release(String reservationId) {
+        if (!holds(reservationId)) {
+            return effects().reply(Done.getInstance());
+        }
+        return effects()
+                .deleteEntity()
+                .thenReply(Done.getInstance());
+    }
+
+    // Deletes the key once its result has expired
+    public Effect<Done> expire() {
+        if (currentState() == null || currentState().expiresAt().isAfter(Instant.now())) {
+            return effects().reply(Done.getInstance());
+        }
+        return effects()
+                .deleteEntity()
+                .thenReply(Done.getInstance());
+    }
+
+    public ReadOnlyEffect<Optional<Result>> getResult() {
+        return effects().reply(Optional.ofNullable(currentState()));
+    }
+
+    private boolean holds(String reservationId) {
+        return currentState() != null
+                && currentState().inProgress()
+                && currentState().reservationId().equals(reservationId);
+    }
+
+    // The fingerprint identifies the request the key was first used with,
+    // so a key reused for a different request can be rejected. While the
+    // write is running the status code is IN_PROGRESS and the result expires
+    // early, so a key whose request died is not locked for the full TTL.
+    public record Result(String fingerprint, int statusCode, Instant expiresAt, String reservationId) {
+
+        public static final int IN_PROGRESS = 0;
+
+        public boolean inProgress() {
+            return statusCode == IN_PROGRESS;
+        }
+    }
+}
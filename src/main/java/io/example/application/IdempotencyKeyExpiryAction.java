@@ -0,0 +1,30 @@
+package io.example.application;
+
+import akka.javasdk.annotations.ComponentId;
+import akka.javasdk.client.ComponentClient;
+import akka.javasdk.timedaction.TimedAction;
+
+// Deletes an IdempotencyKeyEntity once its result has expired. A timer for
+// this action is scheduled for the expiry of every completed key, so keys
+// that are never used again do not stay around for good.
+@ComponentId("idempotency-key-expiry")
+public class IdempotencyKeyExpiryAction extends TimedAction {
+
+    private final ComponentClient componentClient;
+
+    public IdempotencyKeyExpiryAction(ComponentClient componentClient) {
+        this.componentClient = componentClient;
+    }
+
+    public static String timerName(String key) {
+        return "idempotency-key-expiry-" + key;
+    }
+
+    public Effect expire(String key) {
+        componentClient
+                .forKeyValueEntity(key)
+                .method(IdempotencyKeyEntity::expire)
+                .invoke();
+        return effects().done();
+    }
+}
@@ -0,0 +1,97 @@
+package io.example.application;
+
+import akka.javasdk.annotations.ComponentId;
+import akka.javasdk.keyvalueentity.KeyValueEntity;
+
+// Tracks the progress of one schedule import, keyed by import ID. The number
+// of input lines committed so far is the checkpoint a failed or interrupted
+// import resumes from.
+@ComponentId("import-job")
+public class ImportJobEntity extends KeyValueEntity<ImportJobEntity.State> {
+
+    public enum Status {
+        RUNNING,
+        COMPLETED,
+        FAILED
+    }
+
+    // Starts a new import, or resumes one that has not completed from its
+    // last checkpoint. The file of a resumed import cannot be changed.
+    public Effect<State> start(String file) {
+        var state = currentState();
+        if (state == null) {
+            var started = new State(commandContext().entityId(), file, Status.RUNNING, 0, 0, 0, 0.0, null);
+            return effects().updateState(started).thenReply(started);
+        }
+        if (state.status() == Status.COMPLETED) {
+            return effects().error("Import " + state.importId() + " has already completed");
+        }
+        if (!state.file().equals(file)) {
+            return effects().error("Import " + state.importId() + " was started with a different file");
+        }
+        var resumed = state.withStatus(Status.RUNNING, null);
+        return effects().updateState(resumed).thenReply(resumed);
+    }
+
+    public Effect<State> checkpoint(Progress progress) {
+        if (currentState() == null) {
+            return effects().error("Import has not been started");
+        }
+        var updated = currentState().withProgress(progress);
+        return effects().updateState(updated).thenReply(updated);
+    }
+
+    public Effect<State> complete(Progress progress) {
+        if (currentState() == null) {
+            return effects().error("Import has not been started");
+        }
+        var updated = currentState().withProgress(progress).withStatus(Status.COMPLETED, null);
+        return effects().updateState(updated).thenReply(updated);
+    }
+
+    public Effect<State> fail(String error) {
+        if (currentState() == null) {
+            return effects().error("Import has not been started");
+        }
+        var updated = currentState().withStatus(Status.FAILED, error);
+        return effects().updateState(updated).thenReply(updated);
+    }
+
+    public ReadOnlyEffect<State> getState() {
+        if (currentState() == null) {
+            return effects().error("Import not found");
+        }
+        return effects().reply(currentState());
+    }
+
+    public record Progress(long linesCommitted, long recordsImported, long eventsWritten, double recordsPerSecond) {
+    }
+
+    public record State(
+            String importId,
+            String file,
+            Status status,
+            long linesCommitted,
+            long recordsImported,
+            long eventsWritten,
+            double recordsPerSecond,
+            String error) {
+
+        State withStatus(Status newStatus, String newError) {
+            return new State(
+                    importId, file, newStatus, linesCommitted, recordsImported, eventsWritten, recordsPerSecond, newError);
+        }
+
+        State withProgress(Progress progress) {
+            return new State(
+                    importId,
+                    file,
+                    status,
+                    progress.linesCommitted(),
+                    progress.recordsImported(),
+                    progress.eventsWritten(),
+                    progress.recordsPerSecond(),
+                    error);
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package io.example.application;
+
+import io.example.domain.SlotIds;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.roaringbitmap.FastAggregation;
+import org.roaringbitmap.RoaringBitmap;
+
+// An in-memory free/busy index holding, per participant, one compressed
+// bitmap of the slots they are available in and one of the slots they are
+// booked in. Bits are keyed by the hour index of one hour date-encoded slot
+// IDs (see SlotIds); other slots, including those with a length suffix, are
+// not indexed, since one bit cannot tell a lesson from its first hour. The index
+// follows the rows of the ParticipantSlotsView and answers intersection/union
+// queries across any number of participants with a single call. Every node
+// holds its own copy, fed by its own live query of the view (see Bootstrap).
+public class ParticipantBitmapIndex {
+
+    public enum Status {
+        AVAILABLE,
+        BOOKED
+    }
+
+    public enum Mode {
+        // slots in which every participant has the status
+        ALL,
+        // slots in which at least one participant has the status
+        ANY
+    }
+
+    private final Map<String, ParticipantBitmaps> participants = new ConcurrentHashMap<>();
+
+    // Records the status of a view row, which always holds the latest
+    // status of its participant in its slot
+    public void apply(ParticipantSlotsView.SlotRow row) {
+        var status = switch (row.status()) {
+            case AVAILABLE -> Status.AVAILABLE;
+            case BOOKED -> Status.BOOKED;
+            case UNAVAILABLE, CANCELED -> null;
+        };
+        update(row.participantId(), row.slotId(), status);
+    }
+
+    // Records the latest status of a participant in a slot, a null status
+    // meaning the participant is neither available nor booked
+    public void update(String participantId, String slotId, Status status) {
+        var hour = SlotIds.hourIndex(slotId);
+        if (hour.isEmpty()) {
+            return;
+        }
+        var bitmaps = participants.computeIfAbsent(participantId, id -> new ParticipantBitmaps());
+        synchronized (bitmaps) {
+            bitmaps.available.remove(hour.getAsInt());
+            bitmaps.booked.remove(hour.getAsInt());
+            if (status == Status.AVAILABLE) {
+                bitmaps.available.add(hour.getAsInt());
+            } else if (status == Status.BOOKED) {
+                bitmaps.booked.add(hour.getAsInt());
+            }
+        }
+    }
+
+    // Forgets every slot that starts before the given one-hour slot, e.g.
+    // slots that have been archived and so left the view
+    public void dropBefore(String slotId) {
+        var hour = SlotIds.hourIndex(slotId);
+        if (hour.isEmpty()) {
+            return;
+        }
+        for (ParticipantBitmaps bitmaps : participants.values()) {
+            synchronized (bitmaps) {
+                bitmaps.available.remove(0L, hour.getAsInt());
+                bitmaps.booked.remove(0L, hour.getAsInt());
+            }
+        }
+    }
+
+    // Returns, in chronological order, the slot IDs in [fromSlotId, toSlotId]
+    // in which all (or any) of the given participants have the given status
+    public List<String> query(
+            Collection<String> participantIds, Status status, Mode mode, String fromSlotId, String toSlotId) {
+        var from = SlotIds.hourIndex(fromSlotId);
+        var to = SlotIds.hourIndex(toSlotId);
+        if (from.isEmpty() || to.isEmpty()) {
+            throw new IllegalArgumentException("slot range must use one hour date-encoded slot IDs");
+        }
+        var range = RoaringBitmap.bitmapOfRange(from.getAsInt(), to.getAsInt() + 1L);
+
+        var perParticipant = new ArrayList<RoaringBitmap>(participantIds.size());
+        for (String participantId : participantIds) {
+            perParticipant.add(slice(participantId, status, range));
+        }
+        if (perParticipant.isEmpty()) {
+            return List.of();
+        }
+        var result = switch (mode) {
+            case ALL -> FastAggregation.and(perParticipant.iterator());
+            case ANY -> FastAggregation.or(perParticipant.iterator());
+        };
+
+        var slotIds = new ArrayList<String>(result.getCardinality());
+        result.forEach((int hour) -> slotIds.add(SlotIds.fromHourIndex(hour)));
+        return slotIds;
+    }
+
+    // A private copy of the participant's bitmap restricted to the range, so
+    // the set operations can run without holding the participant's lock
+    private RoaringBitmap slice(String participantId, Status status, RoaringBitmap range) {
+        var bitmaps = participants.get(participantId);
+        if (bitmaps == null) {
+            return new RoaringBitmap();
+        }
+        synchronized (bitmaps) {
+            return RoaringBitmap.and(status == Status.AVAILABLE ? bitmaps.available : bitmaps.booked, range);
+        }
+    }
+
+    private static final class ParticipantBitmaps {
+        private final RoaringBitmap available = new RoaringBitmap();
+        private final RoaringBitmap booked = new RoaringBitmap();
+    }
+}
@@ -0,0 +1,100 @@
+package io.example.application;
+
+import akka.Done;
+import akka.javasdk.annotations.ComponentId;
+import akka.javasdk.keyvalueentity.KeyValueEntity;
+import io.example.domain.SlotIds;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+// The bookings a participant holds, keyed by participant ID. A
+// BookingSlotEntity only protects its own slot; this entity is what stops
+// an instructor or aircraft from being booked into two overlapping slots
+// of different lengths (e.g. `2025-08-08-09` and `2025-08-08-08-2h`).
+// Commands on one participant are processed one at a time, so two
+// concurrent claims for overlapping slots cannot both succeed.
+@ComponentId("participant-reservation")
+public class ParticipantReservationEntity extends KeyValueEntity<ParticipantReservationEntity.State> {
+
+    @Override
+    public State emptyState() {
+        return new State(List.of());
+    }
+
+    // Claims the participant for the slot unless another booking already
+    // holds an overlapping slot. Replies whether the claim is new, so a
+    // caller only releases what it claimed itself.
+    public Effect<Boolean> claim(Claim claim) {
+        var claims = currentState().claims();
+        for (Claim existing : claims) {
+            if (existing.bookingId().equals(claim.bookingId()) && existing.slotId().equals(claim.slotId())) {
+                return effects().reply(false);
+            }
+            if (SlotIds.overlap(existing.slotId(), claim.slotId())) {
+                return effects().error(
+                        "Participant is already booked in overlapping slot " + existing.slotId());
+            }
+        }
+        var updated = new ArrayList<>(currentState().withoutPast().claims());
+        updated.add(claim);
+        return effects()
+                .updateState(new State(updated))
+                .thenReply(true);
+    }
+
+    // Records the claim of an imported booking without checking it for
+    // overlaps, as imported schedules are trusted as they are. Holding a
+    // claim that is already held is not an error, so imports can be resumed.
+    public Effect<Done> hold(Claim claim) {
+        if (currentState().claims().contains(claim) || !isPending(claim.slotId())) {
+            return effects().reply(Done.getInstance());
+        }
+        var updated = new ArrayList<>(currentState().withoutPast().claims());
+        updated.add(claim);
+        return effects()
+                .updateState(new State(updated))
+                .thenReply(Done.getInstance());
+    }
+
+    // Releases the claim a booking holds. Releasing a claim that is not held
+    // is not an error, so cancellations may be redelivered.
+    public Effect<Boolean> release(String bookingId) {
+        if (currentState().claims().stream().noneMatch(claim -> claim.bookingId().equals(bookingId))) {
+            return effects().reply(false);
+        }
+        var updated = currentState().withoutPast().claims().stream()
+                .filter(claim -> !claim.bookingId().equals(bookingId))
+                .toList();
+        return effects()
+                .updateState(new State(updated))
+                .thenReply(true);
+    }
+
+    public ReadOnlyEffect<State> getReservations() {
+        return effects().reply(currentState());
+    }
+
+    // Whether a claim on the slot can still overlap anything: the slot has an
+    // hour index and has not ended. Slots without one (e.g. before 2000)
+    // never overlap.
+    static boolean isPending(String slotId) {
+        var start = SlotIds.startHourIndex(slotId);
+        var now = SlotIds.hourIndex(SlotIds.format(LocalDateTime.now(ZoneOffset.UTC))).getAsInt();
+        return start.isPresent() && start.getAsInt() + SlotIds.durationHours(slotId).getAsInt() > now;
+    }
+
+    public record Claim(String slotId, String bookingId) {
+    }
+
+    public record State(List<Claim> claims) {
+
+        // Claims on slots that have ended can no longer overlap anything
+        State withoutPast() {
+            return new State(claims.stream()
+                    .filter(claim -> isPending(claim.slotId()))
+                    .toList());
+        }
+    }
+}
@@ -5,13 +5,17 @@ import akka.javasdk.annotations.ComponentId;
 import akka.javasdk.annotations.TypeName;
 import akka.javasdk.eventsourcedentity.EventSourcedEntity;
 import io.example.domain.Participant.ParticipantType;
+import io.example.domain.SlotStatus;
+import java.util.Objects;
 
 @ComponentId("participant-slot")
 public class ParticipantSlotEntity
         extends EventSourcedEntity<ParticipantSlotEntity.State, ParticipantSlotEntity.Event> {
 
     public Effect<Done> unmarkAvailable(ParticipantSlotEntity.Commands.UnmarkAvailable unmark) {
-        // Supply your own implementation
+        if (alreadyIn(SlotStatus.UNAVAILABLE, null)) {
+            return effects().reply(Done.getInstance());
+        }
         return effects()
                 .persist(new ParticipantSlotEntity.Event.UnmarkedAvailable(
                         unmark.slotId(),
@@ -22,7 +26,9 @@ public class ParticipantSlotEntity
     }
 
     public Effect<Done> markAvailable(ParticipantSlotEntity.Commands.MarkAvailable mark) {
-        // Supply your own implementation
+        if (alreadyIn(SlotStatus.AVAILABLE, null)) {
+            return effects().reply(Done.getInstance());
+        }
         return effects()
                 .persist(new ParticipantSlotEntity.Event.MarkedAvailable(
                         mark.slotId(),
@@ -33,7 +39,9 @@ public class ParticipantSlotEntity
     }
 
     public Effect<Done> book(ParticipantSlotEntity.Commands.Book book) {
-        // Supply your own implementation
+        if (alreadyIn(SlotStatus.BOOKED, book.bookingId())) {
+            return effects().reply(Done.getInstance());
+        }
         return effects()
                 .persist(new ParticipantSlotEntity.Event.Booked(
                         book.slotId(),
@@ -45,7 +53,9 @@ public class ParticipantSlotEntity
     }
 
     public Effect<Done> cancel(ParticipantSlotEntity.Commands.Cancel cancel) {
-        // Supply your own implementation
+        if (alreadyIn(SlotStatus.CANCELED, cancel.bookingId())) {
+            return effects().reply(Done.getInstance());
+        }
         return effects()
                 .persist(new ParticipantSlotEntity.Event.Canceled(
                         cancel.slotId(),
@@ -56,8 +66,38 @@ public class ParticipantSlotEntity
                 .thenReply(state -> Done.getInstance());
     }
 
+    // The consumer redelivers commands after it restarts. A command the state
+    // already reflects is acknowledged without persisting the event again.
+    private boolean alreadyIn(SlotStatus status, String bookingId) {
+        var state = currentState();
+        return state != null && state.status() == status && Objects.equals(state.bookingId(), bookingId);
+    }
+
+    // Moves a past slot out of the working set. The final status travels on
+    // the Archived event to the archive view and the entity is then deleted.
+    public Effect<Done> archive() {
+        if (isDeleted() || currentState() == null) {
+            return effects().reply(Done.getInstance());
+        }
+        var state = currentState();
+        return effects()
+                .persist(new ParticipantSlotEntity.Event.Archived(
+                        state.slotId(),
+                        state.participantId(),
+                        state.participantType(),
+                        state.bookingId(),
+                        state.status()
+                ))
+                .deleteEntity()
+                .thenReply(newState -> Done.getInstance());
+    }
+
     record State(
-            String slotId, String participantId, ParticipantType participantType, String status) {
+            String slotId,
+            String participantId,
+            ParticipantType participantType,
+            String bookingId,
+            SlotStatus status) {
     }
 
     public sealed interface Commands {
@@ -102,6 +142,16 @@ public class ParticipantSlotEntity
                 String slotId, String participantId, ParticipantType participantType, String bookingId)
                 implements Event {
         }
+
+        @TypeName("participant-slot-archived")
+        record Archived(
+                String slotId,
+                String participantId,
+                ParticipantType participantType,
+                String bookingId,
+                SlotStatus status)
+                implements Event {
+        }
     }
 
     @Override
@@ -112,14 +162,16 @@ public class ParticipantSlotEntity
                             booked.slotId(),
                             booked.participantId(),
                             booked.participantType(),
-                            "BOOKED"
+                            booked.bookingId(),
+                            SlotStatus.BOOKED
                     );
                 case Event.Canceled canceled ->
                         new ParticipantSlotEntity.State(
                                 canceled.slotId(),
                                 canceled.participantId(),
                                 canceled.participantType(),
-                                "CANCELED"
+                                canceled.bookingId(),
+                                SlotStatus.CANCELED
                         );
 
                 case Event.MarkedAvailable markedAvailable ->
@@ -127,15 +179,18 @@ public class ParticipantSlotEntity
                                 markedAvailable.slotId(),
                                 markedAvailable.participantId(),
                                 markedAvailable.participantType(),
-                                "AVAILABLE"
+                                null,
+                                SlotStatus.AVAILABLE
                         );
                 case Event.UnmarkedAvailable unmarkedAvailable ->
                         new ParticipantSlotEntity.State(
                                 unmarkedAvailable.slotId(),
                                 unmarkedAvailable.participantId(),
                                 unmarkedAvailable.participantType(),
-                                "UNAVAILABLE"
+                                null,
+                                SlotStatus.UNAVAILABLE
                         );
+                case Event.Archived archived -> currentState();
             };
         }
 }
@@ -5,10 +5,13 @@ import akka.javasdk.annotations.Consume;
 import akka.javasdk.annotations.Query;
 import akka.javasdk.view.TableUpdater;
 import akka.javasdk.view.View;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import io.example.application.ParticipantSlotEntity.Event.Archived;
 import io.example.application.ParticipantSlotEntity.Event.Booked;
 import io.example.application.ParticipantSlotEntity.Event.Canceled;
 import io.example.application.ParticipantSlotEntity.Event.MarkedAvailable;
 import io.example.application.ParticipantSlotEntity.Event.UnmarkedAvailable;
+import io.example.domain.SlotStatus;
 import java.util.List;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -29,7 +32,7 @@ public class ParticipantSlotsView extends View {
                                 booked.participantId(),
                                 booked.participantType().name(),
                                 booked.bookingId(),
-                                "BOOKED"
+                                SlotStatus.BOOKED
                         )
                 );
                 case Canceled canceled -> effects().updateRow(
@@ -38,7 +41,7 @@ public class ParticipantSlotsView extends View {
                                 canceled.participantId(),
                                 canceled.participantType().name(),
                                 canceled.bookingId(),
-                                "CANCELED"
+                                SlotStatus.CANCELED
                         )
                 );
                 case MarkedAvailable markedAvailable -> effects().updateRow(
@@ -46,8 +49,8 @@ public class ParticipantSlotsView extends View {
                                 markedAvailable.slotId(),
                                 markedAvailable.participantId(),
                                 markedAvailable.participantType().name(),
-                                "NOT_BOOKED",
-                                "AVAILABLE"
+                                null,
+                                SlotStatus.AVAILABLE
                         )
                 );
                 case UnmarkedAvailable unmarkedAvailable -> effects().updateRow(
@@ -55,28 +58,51 @@ public class ParticipantSlotsView extends View {
                                 unmarkedAvailable.slotId(),
                                 unmarkedAvailable.participantId(),
                                 unmarkedAvailable.participantType().name(),
-                                "NOT_BOOKED",
-                                "UNAVAILABLE"
+                                null,
+                                SlotStatus.UNAVAILABLE
                         )
                 );
+                // archived slots live on in the ArchivedSlotsView
+                case Archived archived -> effects().deleteRow();
             };
         }
     }
 
+    // Slots that are not booked have no booking ID, which is left out of
+    // the JSON rather than sent as a placeholder
+    @JsonInclude(JsonInclude.Include.NON_NULL)
     public record SlotRow(
             String slotId,
             String participantId,
             String participantType,
             String bookingId,
-            String status) {
+            SlotStatus status) {
     }
 
-    public record ParticipantStatusInput(String participantId, String status) {
+    public record ParticipantStatusInput(String participantId, SlotStatus status) {
     }
 
     public record SlotList(List<SlotRow> slots) {
     }
 
+    // Lean projection of a row for clients that only list slots, e.g. mobile
+    // apps. The participant and status are already known from the query.
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public record SlotSummary(String slotId, String bookingId) {
+    }
+
+    public record SlotSummaryList(List<SlotSummary> slots) {
+    }
+
+    public record SlotStatusInput(String slotId, SlotStatus status) {
+    }
+
+    public record SlotRangeInput(SlotStatus status, String fromSlotId, String toSlotId) {
+    }
+
+    public record SlotsBeforeInput(String afterSlotId, String beforeSlotId, int limit) {
+    }
+
     @Query("SELECT * as slots FROM participant_slots_view WHERE participantId = :participantId")
     public QueryEffect<SlotList> getSlotsByParticipant(String participantId) {
         return queryResult();
@@ -90,4 +116,65 @@ public class ParticipantSlotsView extends View {
     public QueryEffect<SlotList> getSlotsByParticipantAndStatus(ParticipantStatusInput input) {
         return queryResult();
     }
+
+    @Query(
+       """
+       SELECT (slotId, bookingId) as slots FROM participant_slots_view
+       WHERE participantId = :participantId AND status = :status"""
+    )
+    public QueryEffect<SlotSummaryList> getSlotSummariesByParticipantAndStatus(ParticipantStatusInput input) {
+        return queryResult();
+    }
+
+    // Roster lookups: every participant in a slot, optionally with a given
+    // status. The view indexes the columns these queries filter on, so
+    // dispatchers are served without loading the slot's entity.
+    @Query("SELECT * as slots FROM participant_slots_view WHERE slotId = :slotId")
+    public QueryEffect<SlotList> getSlotsBySlot(String slotId) {
+        return queryResult();
+    }
+
+    @Query(
+       """
+       SELECT * as slots FROM participant_slots_view
+       WHERE slotId = :slotId AND status = :status"""
+    )
+    public QueryEffect<SlotList> getSlotsBySlotAndStatus(SlotStatusInput input) {
+        return queryResult();
+    }
+
+    // Streams every row from the given slot ID on and then keeps streaming
+    // each change to such a row, in order. Every node follows this query to
+    // keep its own in-memory indexes current.
+    @Query(value = "SELECT * FROM participant_slots_view WHERE slotId >= :fromSlotId", streamUpdates = true)
+    public QueryStreamEffect<SlotRow> streamSlotUpdates(String fromSlotId) {
+        return queryStreamResult();
+    }
+
+    // Streams the rows with the given status whose slot IDs fall in the range,
+    // used by bulk exports so results are never collected in memory
+    @Query(
+       """
+       SELECT * FROM participant_slots_view
+       WHERE status = :status AND slotId >= :fromSlotId AND slotId <= :toSlotId"""
+    )
+    public QueryStreamEffect<SlotRow> streamSlotsInRange(SlotRangeInput input) {
+        return queryStreamResult();
+    }
+
+    // Rows for slots after afterSlotId and before beforeSlotId, oldest
+    // first. For date-encoded bounds this finds the slots past the archival
+    // horizon. Passing the last slot ID of a page as the next afterSlotId
+    // pages through them, so IDs that only sort like dates, such as ones
+    // starting with a digit, cannot fill every page.
+    @Query(
+       """
+       SELECT * as slots FROM participant_slots_view
+       WHERE slotId > :afterSlotId AND slotId < :beforeSlotId
+       ORDER BY slotId
+       LIMIT :limit"""
+    )
+    public QueryEffect<SlotList> getSlotsBefore(SlotsBeforeInput input) {
+        return queryResult();
+    }
 }
@@ -0,0 +1,31 @@
+package io.example.application;
+
+import akka.javasdk.annotations.ComponentId;
+import akka.javasdk.annotations.Consume;
+import akka.javasdk.client.ComponentClient;
+import akka.javasdk.consumer.Consumer;
+import io.example.domain.BookingEvent;
+import io.example.domain.SlotIds;
+
+// Frees a participant's reservation when their booking is canceled, so
+// they can be booked into an overlapping slot again
+@ComponentId("reservation-release-consumer")
+@Consume.FromEventSourcedEntity(BookingSlotEntity.class)
+public class ReservationReleaseConsumer extends Consumer {
+
+    private final ComponentClient client;
+
+    public ReservationReleaseConsumer(ComponentClient client) {
+        this.client = client;
+    }
+
+    public Effect onEvent(BookingEvent event) {
+        if (event instanceof BookingEvent.ParticipantCanceled canceled && SlotIds.isDateEncoded(canceled.slotId())) {
+            client
+                    .forKeyValueEntity(canceled.participantId())
+                    .method(ParticipantReservationEntity::release)
+                    .invoke(canceled.bookingId());
+        }
+        return effects().done();
+    }
+}
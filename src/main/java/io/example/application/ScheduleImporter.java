@@ -0,0 +1,205 @@
+package io.example.application;
+
+import akka.javasdk.JsonSupport;
+import akka.javasdk.client.ComponentClient;
+import akka.stream.Materializer;
+import akka.stream.javadsl.FileIO;
+import akka.stream.javadsl.Framing;
+import akka.stream.javadsl.FramingTruncation;
+import akka.stream.javadsl.Source;
+import akka.util.ByteString;
+import io.example.domain.ScheduleRecord;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+// Loads historical availability and bookings from an NDJSON file of
+// ScheduleRecords. The file is read in chunks of lines; within a chunk the
+// records are grouped by slot and each group is sent to its BookingSlotEntity
+// as one multi-event command, with a bounded number of slots in flight.
+// Imported bookings in slots that have not ended then hold their
+// participants in the ParticipantReservationEntity, so a live booking
+// cannot overlap them.
+// Chunks are applied in order and the number of lines done is checkpointed
+// in the ImportJobEntity after each one, so a failed import can be resumed
+// from the last completed chunk. Throughput is logged and stored as it runs.
+public class ScheduleImporter {
+
+    private static final int MAX_LINE_BYTES = 64 * 1024;
+
+    private final Logger logger = LoggerFactory.getLogger(ScheduleImporter.class);
+
+    private final ComponentClient componentClient;
+    private final Materializer materializer;
+    private final Path directory;
+    private final int chunkLines;
+    private final int defaultParallelism;
+    private final int maxParallelism;
+
+    // imports running on this node, to avoid running the same import twice
+    private final Set<String> running = ConcurrentHashMap.newKeySet();
+
+    public ScheduleImporter(
+            ComponentClient componentClient,
+            Materializer materializer,
+            Path directory,
+            int chunkLines,
+            int defaultParallelism,
+            int maxParallelism) {
+        this.componentClient = componentClient;
+        this.materializer = materializer;
+        this.directory = directory.toAbsolutePath().normalize();
+        this.chunkLines = chunkLines;
+        this.defaultParallelism = defaultParallelism;
+        this.maxParallelism = maxParallelism;
+    }
+
+    // Starts, or resumes, an import in the background and returns its state
+    // as of the start. The file is resolved against the import directory and
+    // the parallelism, if given, is capped at the configured maximum.
+    public ImportJobEntity.State start(String importId, String file, Integer parallelism) {
+        var path = resolve(file);
+        var slotsInFlight = parallelism == null
+                ? defaultParallelism
+                : Math.max(1, Math.min(parallelism, maxParallelism));
+        if (!running.add(importId)) {
+            throw new IllegalStateException("Import " + importId + " is already running");
+        }
+        try {
+            var job = componentClient
+                    .forKeyValueEntity(importId)
+                    .method(ImportJobEntity::start)
+                    .invoke(file);
+            run(job, path, slotsInFlight).whenComplete((state, ex) -> running.remove(importId));
+            return job;
+        } catch (RuntimeException ex) {
+            running.remove(importId);
+            throw ex;
+        }
+    }
+
+    private CompletionStage<ImportJobEntity.State> run(ImportJobEntity.State job, Path path, int parallelism) {
+        var importId = job.importId();
+        var startedAt = System.nanoTime();
+        var initial = new ImportJobEntity.Progress(
+                job.linesCommitted(), job.recordsImported(), job.eventsWritten(), 0.0);
+        logger.info("Import {} of {} starting at line {}", importId, path, job.linesCommitted());
+
+        return FileIO.fromPath(path)
+                .via(Framing.delimiter(ByteString.fromString("\n"), MAX_LINE_BYTES, FramingTruncation.ALLOW))
+                .drop(job.linesCommitted())
+                .grouped(chunkLines)
+                .mapAsync(1, lines -> importChunk(lines, parallelism))
+                .scan(initial, (progress, chunk) -> {
+                    var records = progress.recordsImported() + chunk.records();
+                    var seconds = Math.max((System.nanoTime() - startedAt) / 1e9, 1e-3);
+                    return new ImportJobEntity.Progress(
+                            progress.linesCommitted() + chunk.lines(),
+                            records,
+                            progress.eventsWritten() + chunk.events(),
+                            (records - job.recordsImported()) / seconds);
+                })
+                // scan emits the initial progress first, which needs no checkpoint
+                .drop(1)
+                .mapAsync(1, progress -> {
+                    logger.info("Import {}: {} lines, {} records, {} events, {} records/s",
+                            importId,
+                            progress.linesCommitted(),
+                            progress.recordsImported(),
+                            progress.eventsWritten(),
+                            Math.round(progress.recordsPerSecond()));
+                    return componentClient
+                            .forKeyValueEntity(importId)
+                            .method(ImportJobEntity::checkpoint)
+                            .invokeAsync(progress)
+                            .thenApply(state -> progress);
+                })
+                .runFold(initial, (previous, progress) -> progress, materializer)
+                .thenCompose(progress -> {
+                    logger.info("Import {} completed: {} records", importId, progress.recordsImported());
+                    return componentClient
+                            .forKeyValueEntity(importId)
+                            .method(ImportJobEntity::complete)
+                            .invokeAsync(progress);
+                })
+                .exceptionallyCompose(ex -> {
+                    logger.error("Import {} failed, it can be resumed from its last checkpoint", importId, ex);
+                    return componentClient
+                            .forKeyValueEntity(importId)
+                            .method(ImportJobEntity::fail)
+                            .invokeAsync(String.valueOf(ex.getMessage()));
+                });
+    }
+
+    private CompletionStage<ChunkResult> importChunk(List<ByteString> lines, int parallelism) throws IOException {
+        Map<String, List<ScheduleRecord>> bySlot = new LinkedHashMap<>();
+        var records = 0;
+        for (ByteString line : lines) {
+            var text = line.utf8String().trim();
+            if (text.isEmpty()) {
+                continue;
+            }
+            var record = JsonSupport.getObjectMapper().readValue(text, ScheduleRecord.class);
+            bySlot.computeIfAbsent(record.slotId(), slotId -> new ArrayList<>()).add(record);
+            records++;
+        }
+        if (bySlot.isEmpty()) {
+            return CompletableFuture.completedFuture(new ChunkResult(lines.size(), 0, 0));
+        }
+
+        var recordCount = records;
+        return Source.from(bySlot.entrySet())
+                .mapAsyncUnordered(parallelism, slot -> componentClient
+                        .forEventSourcedEntity(slot.getKey())
+                        .method(BookingSlotEntity::importSchedule)
+                        .invokeAsync(new BookingSlotEntity.Command.ImportSchedule(slot.getValue()))
+                        .thenCompose(events -> holdParticipants(slot.getValue()).thenApply(done -> events)))
+                .runFold(0, Integer::sum, materializer)
+                .thenApply(events -> new ChunkResult(lines.size(), recordCount, events));
+    }
+
+    // Holds the participants of the slot's pending bookings. Holds are
+    // idempotent, so bookings skipped by a resumed import are held again.
+    private CompletableFuture<Void> holdParticipants(List<ScheduleRecord> records) {
+        var holds = records.stream()
+                .filter(record -> record instanceof ScheduleRecord.Booking
+                        && ParticipantReservationEntity.isPending(record.slotId()))
+                .map(ScheduleRecord.Booking.class::cast)
+                .flatMap(booking -> Stream.of(booking.studentId(), booking.instructorId(), booking.aircraftId())
+                        .map(participantId -> componentClient
+                                .forKeyValueEntity(participantId)
+                                .method(ParticipantReservationEntity::hold)
+                                .invokeAsync(new ParticipantReservationEntity.Claim(booking.slotId(), booking.bookingId()))
+                                .toCompletableFuture()))
+                .toArray(CompletableFuture[]::new);
+        return CompletableFuture.allOf(holds);
+    }
+
+    private Path resolve(String file) {
+        if (file == null) {
+            throw new IllegalArgumentException("an import file is required");
+        }
+        var path = directory.resolve(file).normalize();
+        if (!path.startsWith(directory)) {
+            throw new IllegalArgumentException("import files must be inside " + directory);
+        }
+        if (!Files.isRegularFile(path)) {
+            throw new IllegalArgumentException("import file not found: " + file);
+        }
+        return path;
+    }
+
+    private record ChunkResult(int lines, int records, int events) {
+    }
+}
@@ -0,0 +1,107 @@
+package io.example.application;
+
+import akka.javasdk.annotations.ComponentId;
+import akka.javasdk.client.ComponentClient;
+import akka.javasdk.timedaction.TimedAction;
+import com.typesafe.config.Config;
+import io.example.domain.SlotIds;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+// Periodically archives participant slots that started more than the
+// configured horizon ago, so the hot view and the ParticipantSlotEntity
+// population only hold the present and future. Each run archives one page
+// of rows and schedules the next run: right away for the page after it while
+// the page was full, otherwise after the configured interval for a new pass
+// from the first page. A full page may end partway through its last slot, so
+// that slot is left to the next page, unless it fills the whole page on its
+// own, in which case its remaining rows are left to the next pass.
+@ComponentId("slot-archival")
+public class SlotArchivalAction extends TimedAction {
+
+    public static final String TIMER_NAME = "slot-archival";
+
+    private static final Duration BACKLOG_DELAY = Duration.ofSeconds(1);
+
+    // the lower bound of the first page: no date-encoded slot starts before
+    // 2000, and IDs that sort lower are not date-encoded
+    public static final String FIRST_PAGE = "1999-12-31-23";
+
+    private final Logger logger = LoggerFactory.getLogger(getClass());
+
+    private final ComponentClient componentClient;
+    private final FaultInjector faultInjector;
+    private final Duration horizon;
+    private final Duration interval;
+    private final int batchSize;
+
+    public SlotArchivalAction(ComponentClient componentClient, FaultInjector faultInjector, Config config) {
+        this.componentClient = componentClient;
+        this.faultInjector = faultInjector;
+        this.horizon = config.getDuration("flight.archival.horizon");
+        this.interval = config.getDuration("flight.archival.interval");
+        this.batchSize = config.getInt("flight.archival.batch-size");
+    }
+
+    // Archives the rows for slots after `afterSlotId`, which is FIRST_PAGE or
+    // the last slot ID of the previous page
+    public Effect archivePastSlots(String afterSlotId) {
+        var before = SlotIds.format(LocalDateTime.now(ZoneOffset.UTC).minus(horizon));
+        var rows = componentClient.forView()
+                .method(ParticipantSlotsView::getSlotsBefore)
+                .invoke(new ParticipantSlotsView.SlotsBeforeInput(afterSlotId, before, batchSize))
+                .slots();
+        var full = rows.size() == batchSize;
+        if (full) {
+            rows = withoutLastSlot(rows);
+        }
+
+        var archived = 0;
+        for (ParticipantSlotsView.SlotRow row : rows) {
+            // IDs that are not date-encoded may still sort before the horizon
+            if (!SlotIds.isDateEncoded(row.slotId())) {
+                continue;
+            }
+            var participantSlotId = row.slotId() + "-" + row.participantId();
+            // a failed run is retried by its timer, archiving is idempotent
+            faultInjector.maybeFail(FaultInjector.Point.BEFORE_CALL, participantSlotId, "archive");
+            componentClient
+                    .forEventSourcedEntity(participantSlotId)
+                    .method(ParticipantSlotEntity::archive)
+                    .invoke();
+            faultInjector.maybeFail(FaultInjector.Point.AFTER_CALL, participantSlotId, "archive");
+            archived++;
+        }
+        logger.info("Archived {} participant slots after {} and before {}", archived, afterSlotId, before);
+
+        if (full) {
+            scheduleNext(BACKLOG_DELAY, rows.get(rows.size() - 1).slotId());
+        } else {
+            scheduleNext(interval, FIRST_PAGE);
+        }
+        return effects().done();
+    }
+
+    // Drops the rows of the page's last slot, unless that would leave nothing
+    private static List<ParticipantSlotsView.SlotRow> withoutLastSlot(List<ParticipantSlotsView.SlotRow> rows) {
+        var lastSlotId = rows.get(rows.size() - 1).slotId();
+        var end = rows.size();
+        while (end > 0 && rows.get(end - 1).slotId().equals(lastSlotId)) {
+            end--;
+        }
+        return end > 0 ? rows.subList(0, end) : rows;
+    }
+
+    private void scheduleNext(Duration delay, String afterSlotId) {
+        timers().createSingleTimer(
+                TIMER_NAME,
+                delay,
+                componentClient.forTimedAction()
+                        .method(SlotArchivalAction::archivePastSlots)
+                        .deferred(afterSlotId));
+    }
+}
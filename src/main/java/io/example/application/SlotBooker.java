@@ -0,0 +1,204 @@
+package io.example.application;
+
+import akka.javasdk.client.ComponentClient;
+import io.example.domain.SlotIds;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ThreadLocalRandom;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+// Books slots while keeping participants out of overlapping slots. The slot
+// is booked and the three participants are claimed in their
+// ParticipantReservationEntity at the same time, so the guard adds no round
+// trip to a booking that does not overlap. When the slot rejects the
+// booking, the claims made for it are released. When a claim is refused by
+// a booking that is committed in its slot, the booking is reverted, which
+// makes its participants available in the slot again. A refusing booking
+// that is not committed (yet) may still lose its own slot, e.g. a booking
+// racing for the same slot, so only then is the claim retried after a
+// short pause.
+public class SlotBooker {
+
+    // attempts at claiming a participant held by an uncommitted booking
+    private static final int CLAIM_ATTEMPTS = 3;
+    private static final long CLAIM_RETRY_MILLIS = 50;
+
+    private final Logger logger = LoggerFactory.getLogger(SlotBooker.class);
+
+    private final ComponentClient componentClient;
+
+    public SlotBooker(ComponentClient componentClient) {
+        this.componentClient = componentClient;
+    }
+
+    // Throws a SlotNotBookableException when the slot rejects the booking and
+    // an OverlappingBookingException when a participant is booked elsewhere.
+    // Any other exception leaves the outcome unknown, so nothing is undone.
+    public void book(String slotId, BookingSlotEntity.Command.BookReservation cmd) {
+        // slots without an hour index (undated or before 2000) cannot
+        // overlap with anything
+        if (SlotIds.startHourIndex(slotId).isEmpty()) {
+            bookSlot(slotId, cmd);
+            return;
+        }
+
+        var participantIds = List.of(cmd.studentId(), cmd.instructorId(), cmd.aircraftId());
+        var claims = new ArrayList<>(claimAll(slotId, cmd.bookingId(), participantIds));
+        var booking = componentClient
+                .forEventSourcedEntity(slotId)
+                .method(BookingSlotEntity::bookSlot)
+                .invokeAsync(cmd)
+                .toCompletableFuture();
+        var all = new ArrayList<CompletableFuture<?>>(claims);
+        all.add(booking);
+        CompletableFuture.allOf(all.toArray(CompletableFuture[]::new)).exceptionally(ex -> null).join();
+
+        if (booking.isCompletedExceptionally()) {
+            var failure = unwrap(booking);
+            // errors replied by the entity surface as IllegalArgumentException
+            if (failure instanceof IllegalArgumentException) {
+                releaseNewClaims(participantIds, claims, cmd.bookingId());
+                throw new SlotNotBookableException(failure.getMessage());
+            }
+            throw failure;
+        }
+
+        for (int attempt = 1; ; attempt++) {
+            var refused = refused(claims);
+            if (refused < 0) {
+                return;
+            }
+            var failure = unwrap(claims.get(refused));
+            if (!(failure instanceof IllegalArgumentException)) {
+                throw failure;
+            }
+            var participantId = participantIds.get(refused);
+            if (attempt == CLAIM_ATTEMPTS || heldByCommittedBooking(participantId, slotId, cmd.bookingId())) {
+                revert(slotId, cmd.bookingId(), participantIds, claims);
+                throw new OverlappingBookingException(failure.getMessage());
+            }
+            logger.info("Claim on {} for booking {} in slot {} is held by a pending booking, retrying",
+                    participantId, cmd.bookingId(), slotId);
+            pause(attempt);
+            claims.set(refused, claim(participantId, slotId, cmd.bookingId()));
+            claims.get(refused).exceptionally(ex -> null).join();
+        }
+    }
+
+    private void bookSlot(String slotId, BookingSlotEntity.Command.BookReservation cmd) {
+        try {
+            componentClient
+                    .forEventSourcedEntity(slotId)
+                    .method(BookingSlotEntity::bookSlot)
+                    .invoke(cmd);
+        } catch (IllegalArgumentException ex) {
+            // errors replied by the entity surface as IllegalArgumentException
+            throw new SlotNotBookableException(ex.getMessage());
+        }
+    }
+
+    private List<CompletableFuture<Boolean>> claimAll(String slotId, String bookingId, List<String> participantIds) {
+        return participantIds.stream()
+                .map(participantId -> claim(participantId, slotId, bookingId))
+                .toList();
+    }
+
+    private CompletableFuture<Boolean> claim(String participantId, String slotId, String bookingId) {
+        return componentClient
+                .forKeyValueEntity(participantId)
+                .method(ParticipantReservationEntity::claim)
+                .invokeAsync(new ParticipantReservationEntity.Claim(slotId, bookingId))
+                .toCompletableFuture();
+    }
+
+    // Whether the claim keeping the participant out of the slot belongs to a
+    // booking that its own slot holds, i.e. a real overlap
+    private boolean heldByCommittedBooking(String participantId, String slotId, String bookingId) {
+        var conflict = componentClient
+                .forKeyValueEntity(participantId)
+                .method(ParticipantReservationEntity::getReservations)
+                .invoke()
+                .claims()
+                .stream()
+                .filter(claim -> !claim.bookingId().equals(bookingId) && SlotIds.overlap(claim.slotId(), slotId))
+                .findFirst();
+        if (conflict.isEmpty()) {
+            return false;
+        }
+        return !componentClient
+                .forEventSourcedEntity(conflict.get().slotId())
+                .method(BookingSlotEntity::getSlot)
+                .invoke()
+                .findBooking(conflict.get().bookingId())
+                .isEmpty();
+    }
+
+    private void revert(
+            String slotId, String bookingId, List<String> participantIds, List<CompletableFuture<Boolean>> claims) {
+        componentClient
+                .forEventSourcedEntity(slotId)
+                .method(BookingSlotEntity::revertBooking)
+                .invoke(bookingId);
+        releaseNewClaims(participantIds, claims, bookingId);
+    }
+
+    // The index of the first refused claim, or -1 if every claim is held
+    private static int refused(List<CompletableFuture<Boolean>> claims) {
+        for (int i = 0; i < claims.size(); i++) {
+            if (claims.get(i).isCompletedExceptionally()) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private void releaseNewClaims(
+            List<String> participantIds, List<CompletableFuture<Boolean>> claims, String bookingId) {
+        for (int i = 0; i < claims.size(); i++) {
+            if (!claims.get(i).isCompletedExceptionally() && claims.get(i).join()) {
+                componentClient
+                        .forKeyValueEntity(participantIds.get(i))
+                        .method(ParticipantReservationEntity::release)
+                        .invoke(bookingId);
+            }
+        }
+    }
+
+    // Jittered, so two bookings waiting on each other's claims do not retry
+    // in lockstep
+    private static void pause(int attempt) {
+        try {
+            Thread.sleep(CLAIM_RETRY_MILLIS * attempt + ThreadLocalRandom.current().nextLong(CLAIM_RETRY_MILLIS));
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("interrupted while booking", ex);
+        }
+    }
+
+    private static RuntimeException unwrap(CompletableFuture<?> failed) {
+        try {
+            failed.join();
+            throw new IllegalStateException("future did not fail");
+        } catch (CompletionException ex) {
+            return ex.getCause() instanceof RuntimeException cause ? cause : ex;
+        }
+    }
+
+    public static class OverlappingBookingException extends RuntimeException {
+        public OverlappingBookingException(String message) {
+            super(message);
+        }
+    }
+
+    // The slot rejected the booking, e.g. because a participant is not
+    // available in it. Extends IllegalArgumentException so that endpoints
+    // still answer it with 400 Bad Request.
+    public static class SlotNotBookableException extends IllegalArgumentException {
+        public SlotNotBookableException(String message) {
+            super(message);
+        }
+    }
+}
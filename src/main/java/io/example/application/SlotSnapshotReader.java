@@ -0,0 +1,92 @@
+package io.example.application;
+
+import akka.NotUsed;
+import akka.javasdk.client.ComponentClient;
+import akka.stream.Materializer;
+import akka.stream.javadsl.Sink;
+import akka.stream.javadsl.Source;
+import io.example.domain.Participant;
+import io.example.domain.SlotIds;
+import io.example.domain.Timeslot;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletionStage;
+
+// Reads the state of many slots at once, e.g. for a planner grid. The slots
+// are read from their BookingSlotEntities with a bounded number of reads in
+// flight, so a grid of a hundred slots costs a few round trips of latency
+// instead of a hundred sequential ones.
+public class SlotSnapshotReader {
+
+    private final ComponentClient componentClient;
+    private final Materializer materializer;
+    private final int parallelism;
+    private final int maxSlots;
+
+    public SlotSnapshotReader(ComponentClient componentClient, Materializer materializer, int parallelism, int maxSlots) {
+        this.componentClient = componentClient;
+        this.materializer = materializer;
+        this.parallelism = parallelism;
+        this.maxSlots = maxSlots;
+    }
+
+    // The slot IDs to read: the given ones, without duplicates, or else every
+    // hourly slot from `fromSlotId` to `toSlotId` inclusive. Throws an
+    // IllegalArgumentException for a malformed range or too many slots.
+    public List<String> slotIds(List<String> slotIds, String fromSlotId, String toSlotId) {
+        if (slotIds != null && !slotIds.isEmpty()) {
+            var distinct = List.copyOf(new LinkedHashSet<>(slotIds));
+            checkSize(distinct.size());
+            return distinct;
+        }
+        if (fromSlotId == null || toSlotId == null) {
+            throw new IllegalArgumentException("either slotIds or from and to are required");
+        }
+        var from = SlotIds.hourIndex(fromSlotId);
+        var to = SlotIds.hourIndex(toSlotId);
+        // suffixed IDs are rejected, a range of them would be ambiguous
+        if (from.isEmpty() || to.isEmpty()) {
+            throw new IllegalArgumentException("from and to must be one hour slot IDs formatted as yyyy-MM-dd-HH");
+        }
+        if (from.getAsInt() > to.getAsInt()) {
+            throw new IllegalArgumentException("from must not be after to");
+        }
+        checkSize(to.getAsInt() - from.getAsInt() + 1);
+        var range = new ArrayList<String>();
+        for (int hour = from.getAsInt(); hour <= to.getAsInt(); hour++) {
+            range.add(SlotIds.fromHourIndex(hour));
+        }
+        return range;
+    }
+
+    private void checkSize(int slots) {
+        if (slots > maxSlots) {
+            throw new IllegalArgumentException("at most " + maxSlots + " slots can be read at once");
+        }
+    }
+
+    // All slots, in the order of the given IDs, once every read has completed
+    public CompletionStage<List<SlotSnapshot>> read(List<String> slotIds) {
+        return Source.from(slotIds)
+                .mapAsync(parallelism, this::readSlot)
+                .runWith(Sink.seq(), materializer);
+    }
+
+    // Each slot as soon as its read completes, in no particular order
+    public Source<SlotSnapshot, NotUsed> stream(List<String> slotIds) {
+        return Source.from(slotIds).mapAsyncUnordered(parallelism, this::readSlot);
+    }
+
+    private CompletionStage<SlotSnapshot> readSlot(String slotId) {
+        return componentClient
+                .forEventSourcedEntity(slotId)
+                .method(BookingSlotEntity::getSlot)
+                .invokeAsync()
+                .thenApply(timeslot -> new SlotSnapshot(slotId, timeslot.bookings(), timeslot.available()));
+    }
+
+    public record SlotSnapshot(String slotId, Set<Timeslot.Booking> bookings, Set<Participant> available) {
+    }
+}
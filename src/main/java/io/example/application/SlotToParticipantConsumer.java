@@ -16,22 +16,25 @@ import org.slf4j.LoggerFactory;
 public class SlotToParticipantConsumer extends Consumer {
 
     private final ComponentClient client;
+    private final FaultInjector faultInjector;
     private final Logger logger = LoggerFactory.getLogger(getClass());
 
-    public SlotToParticipantConsumer(ComponentClient client) {
+    public SlotToParticipantConsumer(ComponentClient client, FaultInjector faultInjector) {
         this.client = client;
+        this.faultInjector = faultInjector;
     }
 
     public Effect onEvent(BookingEvent event) {
         var participantSlotEntityId = participantSlotId(event);
         logger.info("Received BookingEvent : {}... generated participantSlotEntityId {}", event, participantSlotEntityId);
+        faultInjector.maybeFail(FaultInjector.Point.BEFORE_CALL, participantSlotEntityId, event);
         switch (event) {
             case BookingEvent.ParticipantCanceled participantCanceled ->
                     this.client
                             .forEventSourcedEntity(participantSlotEntityId)
                             .method(ParticipantSlotEntity::cancel)
                             .invoke(new ParticipantSlotEntity.Commands.Cancel(
-                                    participantSlotEntityId,
+                                    participantCanceled.slotId(),
                                     participantCanceled.participantId(),
                                     participantCanceled.participantType(),
                                     participantCanceled.bookingId()
@@ -41,7 +44,7 @@ public class SlotToParticipantConsumer extends Consumer {
                             .forEventSourcedEntity(participantSlotEntityId)
                             .method(ParticipantSlotEntity::book)
                             .invoke(new ParticipantSlotEntity.Commands.Book(
-                                    participantSlotEntityId,
+                                    participantBooked.slotId(),
                                     participantBooked.participantId(),
                                     participantBooked.participantType(),
                                     participantBooked.bookingId()
@@ -51,7 +54,7 @@ public class SlotToParticipantConsumer extends Consumer {
                             .forEventSourcedEntity(participantSlotEntityId)
                             .method(ParticipantSlotEntity::markAvailable)
                             .invoke(new ParticipantSlotEntity.Commands.MarkAvailable(
-                                    participantSlotEntityId,
+                                    participantMarkedAvailable.slotId(),
                                     participantMarkedAvailable.participantId(),
                                     participantMarkedAvailable.participantType()
                             ));
@@ -60,11 +63,12 @@ public class SlotToParticipantConsumer extends Consumer {
                             .forEventSourcedEntity(participantSlotEntityId)
                             .method(ParticipantSlotEntity::unmarkAvailable)
                             .invoke(new ParticipantSlotEntity.Commands.UnmarkAvailable(
-                                    participantSlotEntityId,
+                                    participantUnmarkedAvailable.slotId(),
                                     participantUnmarkedAvailable.participantId(),
                                     participantUnmarkedAvailable.participantType()
                             ));
         }
+        faultInjector.maybeFail(FaultInjector.Point.AFTER_CALL, participantSlotEntityId, event);
         return effects().done();
     }
 
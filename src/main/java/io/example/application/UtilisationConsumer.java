@@ -0,0 +1,67 @@
+package io.example.application;
+
+import akka.javasdk.annotations.ComponentId;
+import akka.javasdk.annotations.Consume;
+import akka.javasdk.client.ComponentClient;
+import akka.javasdk.consumer.Consumer;
+import io.example.application.UtilisationEntity.Period;
+import io.example.domain.Participant.ParticipantType;
+import io.example.domain.SlotIds;
+import io.example.domain.SlotStatus;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+// Turns participant slot status changes into updates of the day and week
+// UtilisationEntity buckets the slot falls into. Slots whose IDs are not
+// date-encoded have no day or week and are skipped. Each change carries the
+// sequence number of its event, taken from the message metadata, so the
+// buckets can ignore events redelivered after a restart.
+@ComponentId("utilisation-consumer")
+@Consume.FromEventSourcedEntity(ParticipantSlotEntity.class)
+public class UtilisationConsumer extends Consumer {
+
+    // the CloudEvent extension holding the entity event's sequence number
+    private static final String SEQUENCE_NUMBER_KEY = "ce-sequence";
+
+    private final ComponentClient client;
+    private final Logger logger = LoggerFactory.getLogger(getClass());
+
+    public UtilisationConsumer(ComponentClient client) {
+        this.client = client;
+    }
+
+    public Effect onEvent(ParticipantSlotEntity.Event event) {
+        var sequenceNumber = messageContext().metadata().get(SEQUENCE_NUMBER_KEY).map(Long::parseLong).orElse(0L);
+        switch (event) {
+            case ParticipantSlotEntity.Event.MarkedAvailable evt ->
+                    record(evt.slotId(), evt.participantId(), evt.participantType(), SlotStatus.AVAILABLE, sequenceNumber);
+            case ParticipantSlotEntity.Event.UnmarkedAvailable evt ->
+                    record(evt.slotId(), evt.participantId(), evt.participantType(), SlotStatus.UNAVAILABLE, sequenceNumber);
+            case ParticipantSlotEntity.Event.Booked evt ->
+                    record(evt.slotId(), evt.participantId(), evt.participantType(), SlotStatus.BOOKED, sequenceNumber);
+            case ParticipantSlotEntity.Event.Canceled evt ->
+                    record(evt.slotId(), evt.participantId(), evt.participantType(), SlotStatus.CANCELED, sequenceNumber);
+            // archiving does not change how a slot was used
+            case ParticipantSlotEntity.Event.Archived evt -> {
+            }
+        }
+        return effects().done();
+    }
+
+    private void record(
+            String slotId, String participantId, ParticipantType participantType, SlotStatus status, long sequenceNumber) {
+        var start = SlotIds.start(slotId);
+        if (start.isEmpty()) {
+            logger.debug("Slot {} is not date-encoded, skipping utilisation", slotId);
+            return;
+        }
+        for (Period period : Period.values()) {
+            var bucket = period.bucket(start.get().toLocalDate());
+            client
+                    .forKeyValueEntity(UtilisationEntity.entityId(participantId, period, bucket))
+                    .method(UtilisationEntity::recordStatus)
+                    .invoke(new UtilisationEntity.StatusChange(
+                            participantId, participantType, period, bucket, slotId, status, sequenceNumber));
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package io.example.application;
+
+import akka.javasdk.annotations.ComponentId;
+import akka.javasdk.keyvalueentity.KeyValueEntity;
+import io.example.domain.Participant.ParticipantType;
+import io.example.domain.SlotIds;
+import io.example.domain.SlotStatus;
+import java.time.LocalDate;
+import java.time.temporal.IsoFields;
+import java.util.HashMap;
+import java.util.Map;
+
+// Pre-computed utilisation counters for one participant over one day or one
+// ISO week, keyed by {participantId}:{period}:{bucket}. The entity remembers
+// the latest status of each slot in its bucket, so it can turn every status
+// change into the right counter increments. It also remembers the sequence
+// number of the last ParticipantSlotEntity event applied per slot, so
+// changes redelivered after a consumer restart are ignored, however many of
+// them are replayed.
+@ComponentId("utilisation")
+public class UtilisationEntity extends KeyValueEntity<UtilisationEntity.State> {
+
+    public enum Period {
+        DAY,
+        WEEK;
+
+        // Buckets sort chronologically, e.g. `2025-08-08` or `2025-W32`
+        public String bucket(LocalDate date) {
+            return switch (this) {
+                case DAY -> date.toString();
+                case WEEK -> String.format(
+                        "%d-W%02d",
+                        date.get(IsoFields.WEEK_BASED_YEAR),
+                        date.get(IsoFields.WEEK_OF_WEEK_BASED_YEAR));
+            };
+        }
+    }
+
+    public static String entityId(String participantId, Period period, String bucket) {
+        return participantId + ":" + period + ":" + bucket;
+    }
+
+    public Effect<State> recordStatus(StatusChange change) {
+        var state = currentState() != null
+                ? currentState()
+                : State.empty(change.participantId(), change.participantType(), change.period(), change.bucket());
+        var updated = state.withStatus(change.slotId(), change.status(), change.sequenceNumber());
+        if (updated == state) {
+            return effects().reply(state);
+        }
+        return effects()
+                .updateState(updated)
+                .thenReply(updated);
+    }
+
+    public record StatusChange(
+            String participantId,
+            ParticipantType participantType,
+            Period period,
+            String bucket,
+            String slotId,
+            SlotStatus status,
+            // of the ParticipantSlotEntity event, 0 when unknown
+            long sequenceNumber) {
+    }
+
+    public record State(
+            String participantId,
+            ParticipantType participantType,
+            Period period,
+            String bucket,
+            Map<String, SlotStatus> slotStatuses,
+            Map<String, Long> slotSequenceNumbers,
+            int bookedHours,
+            int availableHours,
+            int bookings,
+            int cancellations) {
+
+        static State empty(String participantId, ParticipantType participantType, Period period, String bucket) {
+            return new State(participantId, participantType, period, bucket, Map.of(), Map.of(), 0, 0, 0, 0);
+        }
+
+        // Applies the transition from the slot's previous status to the new
+        // one, counting the slot's full length in hours. Returns this same
+        // instance when the change was already applied, i.e. its sequence
+        // number is not above the last one applied for the slot, or when the
+        // status did not change.
+        State withStatus(String slotId, SlotStatus status, long sequenceNumber) {
+            var sequenceNumbers = slotSequenceNumbers == null ? Map.<String, Long>of() : slotSequenceNumbers;
+            if (sequenceNumber > 0 && sequenceNumber <= sequenceNumbers.getOrDefault(slotId, 0L)) {
+                return this;
+            }
+            var previous = slotStatuses.get(slotId);
+            if (status == previous) {
+                return this;
+            }
+            var hours = SlotIds.durationHours(slotId).orElse(1);
+            var booked = bookedHours;
+            var available = availableHours;
+            var bookingCount = bookings;
+            var cancellationCount = cancellations;
+
+            if (previous == SlotStatus.AVAILABLE) {
+                available -= hours;
+            } else if (previous == SlotStatus.BOOKED) {
+                booked -= hours;
+            }
+            switch (status) {
+                case AVAILABLE -> available += hours;
+                case BOOKED -> {
+                    booked += hours;
+                    bookingCount++;
+                }
+                case CANCELED -> {
+                    if (previous == SlotStatus.BOOKED) {
+                        cancellationCount++;
+                    }
+                }
+                case UNAVAILABLE -> {
+                }
+            }
+
+            var statuses = new HashMap<>(slotStatuses);
+            statuses.put(slotId, status);
+            var updatedSequenceNumbers = new HashMap<>(sequenceNumbers);
+            if (sequenceNumber > 0) {
+                updatedSequenceNumbers.put(slotId, sequenceNumber);
+            }
+            return new State(
+                    participantId,
+                    participantType,
+                    period,
+                    bucket,
+                    statuses,
+                    updatedSequenceNumbers,
+                    booked,
+                    available,
+                    bookingCount,
+                    cancellationCount);
+        }
+    }
+}
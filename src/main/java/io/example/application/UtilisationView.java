@@ -0,0 +1,66 @@
+package io.example.application;
+
+import akka.javasdk.annotations.ComponentId;
+import akka.javasdk.annotations.Consume;
+import akka.javasdk.annotations.Query;
+import akka.javasdk.view.TableUpdater;
+import akka.javasdk.view.View;
+import java.util.List;
+
+// Read model over the UtilisationEntity buckets. Each row already holds the
+// counters for one participant and one day or week, so a query only reads
+// the rows it returns, however much history has accumulated.
+@ComponentId("view-utilisation")
+public class UtilisationView extends View {
+
+    @Consume.FromKeyValueEntity(UtilisationEntity.class)
+    public static class UtilisationViewUpdater extends TableUpdater<UtilisationRow> {
+
+        public Effect<UtilisationRow> onUpdate(UtilisationEntity.State state) {
+            return effects().updateRow(
+                    new UtilisationRow(
+                            state.participantId(),
+                            state.participantType().name(),
+                            state.period().name(),
+                            state.bucket(),
+                            state.bookedHours(),
+                            state.availableHours(),
+                            state.bookings(),
+                            state.cancellations(),
+                            state.bookings() == 0 ? 0.0 : (double) state.cancellations() / state.bookings()
+                    )
+            );
+        }
+    }
+
+    // Booked and available hours are current totals for the bucket, bookings
+    // and cancellations count every booking and cancellation made in it
+    public record UtilisationRow(
+            String participantId,
+            String participantType,
+            String period,
+            String bucket,
+            int bookedHours,
+            int availableHours,
+            int bookings,
+            int cancellations,
+            double cancellationRate) {
+    }
+
+    public record UtilisationInput(String participantId, String period, String fromBucket, String toBucket) {
+    }
+
+    public record UtilisationList(List<UtilisationRow> buckets) {
+    }
+
+    @Query(
+       """
+       SELECT * as buckets FROM utilisation_view
+       WHERE participantId = :participantId AND period = :period
+         AND bucket >= :fromBucket AND bucket <= :toBucket
+       ORDER BY bucket"""
+    )
+    public QueryEffect<UtilisationList> getUtilisation(UtilisationInput input) {
+        return queryResult();
+    }
+}
@@ -0,0 +1,31 @@
+package io.example.application;
+
+import akka.javasdk.annotations.ComponentId;
+import akka.javasdk.annotations.Consume;
+import akka.javasdk.consumer.Consumer;
+import io.example.domain.BookingEvent;
+
+// Books waitlisted students when a slot frees up. Only new availability can
+// make a slot bookable: canceling a booking does not make its participants
+// available again (see Timeslot.cancelBooking), so cancellations are not a
+// trigger. On each availability the WaitlistPromoter books every entry that
+// the slot is now bookable for.
+@ComponentId("waitlist-consumer")
+@Consume.FromEventSourcedEntity(BookingSlotEntity.class)
+public class WaitlistConsumer extends Consumer {
+
+    private final WaitlistPromoter promoter;
+
+    public WaitlistConsumer(WaitlistPromoter promoter) {
+        this.promoter = promoter;
+    }
+
+    public Effect onEvent(BookingEvent event) {
+        switch (event) {
+            case BookingEvent.ParticipantMarkedAvailable evt -> promoter.promote(evt.slotId());
+            default -> {
+            }
+        }
+        return effects().done();
+    }
+}
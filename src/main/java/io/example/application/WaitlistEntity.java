@@ -0,0 +1,84 @@
+package io.example.application;
+
+import akka.javasdk.annotations.ComponentId;
+import akka.javasdk.keyvalueentity.KeyValueEntity;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Predicate;
+
+// The students waiting for a slot, keyed by slot ID and ordered by the time
+// they joined. The WaitlistConsumer books the head of the queue as soon as
+// the slot becomes bookable for it.
+@ComponentId("waitlist")
+public class WaitlistEntity extends KeyValueEntity<WaitlistEntity.State> {
+
+    @Override
+    public State emptyState() {
+        return new State(List.of());
+    }
+
+    // Adds an entry in request-time order. A student who is already waiting
+    // keeps their original place.
+    public Effect<State> join(Entry entry) {
+        if (currentState().find(entry.studentId()) != null) {
+            return effects().reply(currentState());
+        }
+        var entries = new ArrayList<>(currentState().entries());
+        entries.add(entry);
+        entries.sort(Comparator.comparing(Entry::requestedAt));
+        var updated = new State(entries);
+        return effects()
+                .updateState(updated)
+                .thenReply(updated);
+    }
+
+    public Effect<State> leave(String studentId) {
+        if (currentState().find(studentId) == null) {
+            return effects().error("Student is not on the waitlist for this slot");
+        }
+        var updated = currentState().without(entry -> entry.studentId().equals(studentId));
+        return effects()
+                .updateState(updated)
+                .thenReply(updated);
+    }
+
+    // Removes the entry once its booking has been made. Removing an entry
+    // that is no longer waiting is not an error, so redelivery is harmless.
+    public Effect<State> remove(String bookingId) {
+        var updated = currentState().without(entry -> entry.bookingId().equals(bookingId));
+        if (updated.entries().size() == currentState().entries().size()) {
+            return effects().reply(currentState());
+        }
+        return effects()
+                .updateState(updated)
+                .thenReply(updated);
+    }
+
+    public ReadOnlyEffect<State> getWaitlist() {
+        return effects().reply(currentState());
+    }
+
+    public record Entry(
+            String studentId,
+            String aircraftId,
+            String instructorId,
+            String bookingId,
+            Instant requestedAt) {
+    }
+
+    public record State(List<Entry> entries) {
+
+        Entry find(String studentId) {
+            return entries.stream()
+                    .filter(entry -> entry.studentId().equals(studentId))
+                    .findFirst()
+                    .orElse(null);
+        }
+
+        State without(Predicate<Entry> match) {
+            return new State(entries.stream().filter(match.negate()).toList());
+        }
+    }
+}
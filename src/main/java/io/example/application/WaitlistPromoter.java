@@ -0,0 +1,83 @@
+package io.example.application;
+
+import akka.javasdk.client.ComponentClient;
+import java.util.ArrayList;
+import java.util.List;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+// Books waitlisted students into a slot. The waitlist is walked in request
+// order and every entry that the slot is now bookable for is booked and
+// removed from the queue. The WaitlistConsumer runs it when a slot gains
+// availability and the endpoint runs it right after a student joins, so a
+// slot that freed up between the join's check and the join itself does not
+// leave the student waiting for an event that has already passed.
+public class WaitlistPromoter {
+
+    private final Logger logger = LoggerFactory.getLogger(WaitlistPromoter.class);
+
+    private final ComponentClient client;
+    private final SlotBooker slotBooker;
+
+    public WaitlistPromoter(ComponentClient client, SlotBooker slotBooker) {
+        this.client = client;
+        this.slotBooker = slotBooker;
+    }
+
+    // Returns the booking IDs of the entries that left the waitlist because
+    // they are now booked. Only a rejection by the slot or an overlapping
+    // booking leaves an entry waiting; any other failure is thrown, as the
+    // booking may have been made, and a rerun finds and removes it.
+    public List<String> promote(String slotId) {
+        var booked = new ArrayList<String>();
+        var waitlist = client
+                .forKeyValueEntity(slotId)
+                .method(WaitlistEntity::getWaitlist)
+                .invoke();
+        if (waitlist.entries().isEmpty()) {
+            return booked;
+        }
+
+        var slot = client
+                .forEventSourcedEntity(slotId)
+                .method(BookingSlotEntity::getSlot)
+                .invoke();
+        for (WaitlistEntity.Entry entry : waitlist.entries()) {
+            // already booked by an earlier run
+            if (!slot.findBooking(entry.bookingId()).isEmpty()) {
+                removeEntry(slotId, entry);
+                booked.add(entry.bookingId());
+                continue;
+            }
+            if (!slot.isBookable(entry.studentId(), entry.aircraftId(), entry.instructorId())) {
+                continue;
+            }
+            try {
+                slotBooker.book(slotId, new BookingSlotEntity.Command.BookReservation(
+                        entry.studentId(),
+                        entry.aircraftId(),
+                        entry.instructorId(),
+                        entry.bookingId()
+                ));
+                logger.info("Booked waitlisted student {} into slot {} as {}", entry.studentId(), slotId, entry.bookingId());
+                removeEntry(slotId, entry);
+                booked.add(entry.bookingId());
+            } catch (SlotBooker.SlotNotBookableException | SlotBooker.OverlappingBookingException ex) {
+                logger.info("Waitlisted booking {} for slot {} was rejected: {}", entry.bookingId(), slotId, ex.getMessage());
+            }
+            // the booking took participants out of the slot
+            slot = client
+                    .forEventSourcedEntity(slotId)
+                    .method(BookingSlotEntity::getSlot)
+                    .invoke();
+        }
+        return booked;
+    }
+
+    private void removeEntry(String slotId, WaitlistEntity.Entry entry) {
+        client
+                .forKeyValueEntity(slotId)
+                .method(WaitlistEntity::remove)
+                .invoke(entry.bookingId());
+    }
+}
@@ -0,0 +1,25 @@
+package io.example.domain;
+
+import com.fasterxml.jackson.annotation.JsonSubTypes;
+import com.fasterxml.jackson.annotation.JsonTypeInfo;
+import io.example.domain.Participant.ParticipantType;
+
+// A single line of a historical schedule import. Each line is a JSON object
+// whose `type` is either `availability` (one participant available in a slot)
+// or `booking` (a booking of a student, aircraft and instructor in a slot).
+@JsonTypeInfo(use = JsonTypeInfo.Id.NAME, property = "type")
+@JsonSubTypes({
+  @JsonSubTypes.Type(value = ScheduleRecord.Availability.class, name = "availability"),
+  @JsonSubTypes.Type(value = ScheduleRecord.Booking.class, name = "booking")
+})
+public sealed interface ScheduleRecord {
+
+  String slotId();
+
+  record Availability(String slotId, String participantId, ParticipantType participantType)
+      implements ScheduleRecord {}
+
+  record Booking(
+      String slotId, String bookingId, String studentId, String aircraftId, String instructorId)
+      implements ScheduleRecord {}
+}
@@ -0,0 +1,114 @@
+package io.example.domain;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.time.format.ResolverStyle;
+import java.util.Optional;
+import java.util.OptionalInt;
+
+// Slot IDs are opaque strings, but applications may follow the date-encoded
+// naming convention `yyyy-MM-dd-HH` (e.g. `2025-08-08-09` is August 8th, 2025
+// at 9am). These helpers interpret such IDs; for any other ID they return
+// an empty result so callers can skip slots that carry no calendar meaning.
+// Slots longer than an hour carry their length as a suffix, e.g.
+// `2025-08-08-09-2h` is a two hour lesson starting at 9am; IDs without a
+// suffix last one hour. Date-encoded IDs sort lexicographically in
+// chronological order of their start.
+public final class SlotIds {
+
+  private static final DateTimeFormatter FORMAT =
+      DateTimeFormatter.ofPattern("uuuu-MM-dd-HH").withResolverStyle(ResolverStyle.STRICT);
+
+  // Hour indexes are counted from this instant, keeping them small enough
+  // to be used as int keys (e.g. in bitmaps) for the next couple of centuries
+  private static final LocalDateTime EPOCH = LocalDateTime.of(2000, 1, 1, 0, 0);
+
+  private static final int START_LENGTH = 13;
+  private static final int MAX_DURATION_HOURS = 24;
+
+  private SlotIds() {}
+
+  public static Optional<LocalDateTime> start(String slotId) {
+    if (slotId == null || slotId.length() < START_LENGTH) {
+      return Optional.empty();
+    }
+    if (slotId.length() > START_LENGTH && parseDuration(slotId.substring(START_LENGTH)).isEmpty()) {
+      return Optional.empty();
+    }
+    try {
+      return Optional.of(LocalDateTime.parse(slotId.substring(0, START_LENGTH), FORMAT));
+    } catch (DateTimeParseException ex) {
+      return Optional.empty();
+    }
+  }
+
+  // The length of a date-encoded slot in hours
+  public static OptionalInt durationHours(String slotId) {
+    if (!isDateEncoded(slotId)) {
+      return OptionalInt.empty();
+    }
+    return slotId.length() == START_LENGTH
+        ? OptionalInt.of(1)
+        : parseDuration(slotId.substring(START_LENGTH));
+  }
+
+  // Parses a `-{n}h` suffix
+  private static OptionalInt parseDuration(String suffix) {
+    if (suffix.length() < 3 || suffix.charAt(0) != '-' || !suffix.endsWith("h")) {
+      return OptionalInt.empty();
+    }
+    var digits = suffix.substring(1, suffix.length() - 1);
+    if (!digits.chars().allMatch(Character::isDigit) || digits.length() > 2) {
+      return OptionalInt.empty();
+    }
+    var hours = Integer.parseInt(digits);
+    return hours >= 1 && hours <= MAX_DURATION_HOURS ? OptionalInt.of(hours) : OptionalInt.empty();
+  }
+
+  public static boolean isDateEncoded(String slotId) {
+    return start(slotId).isPresent();
+  }
+
+  public static String format(LocalDateTime start) {
+    return FORMAT.format(start);
+  }
+
+  // The number of whole hours between the epoch and the start of a one hour
+  // slot. Empty for slots with a length suffix, so that every index maps back
+  // to exactly one slot ID through fromHourIndex.
+  public static OptionalInt hourIndex(String slotId) {
+    return isOneHour(slotId) ? startHourIndex(slotId) : OptionalInt.empty();
+  }
+
+  // The number of whole hours between the epoch and the start of any
+  // date-encoded slot, whatever its length
+  public static OptionalInt startHourIndex(String slotId) {
+    return start(slotId)
+        .filter(start -> !start.isBefore(EPOCH))
+        .map(start -> OptionalInt.of((int) Duration.between(EPOCH, start).toHours()))
+        .orElse(OptionalInt.empty());
+  }
+
+  // Whether the slot is date-encoded without a length suffix
+  public static boolean isOneHour(String slotId) {
+    return isDateEncoded(slotId) && slotId.length() == START_LENGTH;
+  }
+
+  // Whether two date-encoded slots share at least one hour
+  public static boolean overlap(String slotId, String otherSlotId) {
+    var start = startHourIndex(slotId);
+    var otherStart = startHourIndex(otherSlotId);
+    if (start.isEmpty() || otherStart.isEmpty()) {
+      return false;
+    }
+    var end = start.getAsInt() + durationHours(slotId).getAsInt();
+    var otherEnd = otherStart.getAsInt() + durationHours(otherSlotId).getAsInt();
+    return start.getAsInt() < otherEnd && otherStart.getAsInt() < end;
+  }
+
+  public static String fromHourIndex(int hourIndex) {
+    return format(EPOCH.plusHours(hourIndex));
+  }
+}
@@ -0,0 +1,24 @@
+package io.example.domain;
+
+import java.util.Optional;
+
+// The status of a participant within a slot. Stored and serialized by name,
+// so rows written while the status was a plain string read back unchanged.
+public enum SlotStatus {
+  AVAILABLE,
+  UNAVAILABLE,
+  BOOKED,
+  CANCELED;
+
+  // Case-insensitive lookup for statuses supplied in URLs
+  public static Optional<SlotStatus> parse(String value) {
+    if (value == null) {
+      return Optional.empty();
+    }
+    try {
+      return Optional.of(valueOf(value.trim().toUpperCase()));
+    } catch (IllegalArgumentException ex) {
+      return Optional.empty();
+    }
+  }
+}
@@ -0,0 +1,89 @@
+package io.example.api;
+
+import io.example.api.AdmissionController.Priority;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class AdmissionControllerTest {
+
+    private final AtomicLong clock = new AtomicLong(0);
+
+    @Test
+    void testParticipantBucketAllowsBurstThenRefills() {
+        var controller = new AdmissionController(
+                new AdmissionController.Limits(100, 1.0, 1000, 1000, 1, 3), clock::get, Runnable::run);
+
+        for (int i = 0; i < 3; i++) {
+            try (var admission = controller.tryAdmit("mark-available", Priority.BULK, List.of("AIRC001"))) {
+                Assertions.assertTrue(admission.admitted());
+            }
+        }
+        var rejected = controller.tryAdmit("mark-available", Priority.BULK, List.of("AIRC001"));
+        Assertions.assertFalse(rejected.admitted());
+        Assertions.assertEquals(1, rejected.retryAfterSeconds());
+
+        // other participants are unaffected
+        Assertions.assertTrue(controller.tryAdmit("mark-available", Priority.BULK, List.of("AIRC002")).admitted());
+
+        clock.addAndGet(1_000_000_000L);
+        Assertions.assertTrue(controller.tryAdmit("mark-available", Priority.BULK, List.of("AIRC001")).admitted());
+    }
+
+    @Test
+    void testBookingsKeepHeadroomWhenBulkTrafficSaturates() {
+        var controller = new AdmissionController(
+                new AdmissionController.Limits(4, 0.5, 1000, 1000, 1000, 1000), clock::get, Runnable::run);
+
+        var bulk1 = controller.tryAdmit("mark-available", Priority.BULK, List.of("AIRC001"));
+        var bulk2 = controller.tryAdmit("mark-available", Priority.BULK, List.of("AIRC002"));
+        var bulk3 = controller.tryAdmit("mark-available", Priority.BULK, List.of("AIRC003"));
+        Assertions.assertTrue(bulk1.admitted());
+        Assertions.assertTrue(bulk2.admitted());
+        Assertions.assertFalse(bulk3.admitted());
+
+        var booking1 = controller.tryAdmit("create-booking", Priority.BOOKING, List.of("STUD001"));
+        var booking2 = controller.tryAdmit("create-booking", Priority.BOOKING, List.of("STUD002"));
+        var booking3 = controller.tryAdmit("create-booking", Priority.BOOKING, List.of("STUD003"));
+        Assertions.assertTrue(booking1.admitted());
+        Assertions.assertTrue(booking2.admitted());
+        Assertions.assertFalse(booking3.admitted());
+
+        booking1.close();
+        bulk1.close();
+        Assertions.assertEquals(2, controller.inFlight());
+        // a second close, e.g. when a stream ends after a failure, is ignored
+        bulk1.close();
+        Assertions.assertEquals(2, controller.inFlight());
+    }
+
+    @Test
+    void testBulkTrafficForAParticipantDoesNotStarveItsBookings() {
+        var controller = new AdmissionController(
+                new AdmissionController.Limits(100, 1.0, 1000, 1000, 1, 2), clock::get, Runnable::run);
+
+        for (int i = 0; i < 2; i++) {
+            controller.tryAdmit("mark-available", Priority.BULK, List.of("AIRC001")).close();
+        }
+        Assertions.assertFalse(controller.tryAdmit("mark-available", Priority.BULK, List.of("AIRC001")).admitted());
+
+        try (var booking = controller.tryAdmit("create-booking", Priority.BOOKING, List.of("STUD001", "AIRC001"))) {
+            Assertions.assertTrue(booking.admitted());
+        }
+    }
+
+    @Test
+    void testRejectedRequestsGiveTheirTokensBack() {
+        var controller = new AdmissionController(
+                new AdmissionController.Limits(100, 1.0, 1, 2, 1, 1), clock::get, Runnable::run);
+
+        controller.tryAdmit("create-booking", Priority.BOOKING, List.of("STUD001")).close();
+        // rejected for STUD001, so the route token it took is refunded
+        for (int i = 0; i < 5; i++) {
+            Assertions.assertFalse(controller.tryAdmit("create-booking", Priority.BOOKING, List.of("STUD001")).admitted());
+        }
+
+        Assertions.assertTrue(controller.tryAdmit("create-booking", Priority.BOOKING, List.of("STUD002")).admitted());
+    }
+}
@@ -5,11 +5,18 @@ import akka.javasdk.http.StrictResponse;
 import akka.javasdk.testkit.TestKitSupport;
 import akka.util.ByteString;
 import io.example.application.ParticipantSlotsView;
+import io.example.application.SlotSnapshotReader;
+import io.example.domain.SlotIds;
 import io.example.domain.Timeslot;
+import java.util.stream.IntStream;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 public class FlightEndpointTest extends TestKitSupport {
+    private static final Logger log = LoggerFactory.getLogger(FlightEndpointTest.class);
+
     final String URL_PREFIX = "/flight";
 
     @Test
@@ -167,6 +174,199 @@ public class FlightEndpointTest extends TestKitSupport {
         Assertions.assertEquals(StatusCodes.BAD_REQUEST, cancelBookingResponse.status());
     }
 
+    @Test
+    public void matchBookingBooksEarliestViableSlotOverHttp() throws InterruptedException {
+
+        var studentId = "STU007";
+        var instructorId = "INS007";
+        var aircraftId = "AIR007";
+
+        // the earlier slot is missing an aircraft, so it cannot be matched
+        markAvailable("2030-01-07-09", new FlightEndpoint.AvailabilityRequest(studentId, "STUDENT"));
+        markAvailable("2030-01-07-09", new FlightEndpoint.AvailabilityRequest(instructorId, "INSTRUCTOR"));
+        markAvailable("2030-01-07-10", new FlightEndpoint.AvailabilityRequest(studentId, "STUDENT"));
+        markAvailable("2030-01-07-10", new FlightEndpoint.AvailabilityRequest(instructorId, "INSTRUCTOR"));
+        markAvailable("2030-01-07-10", new FlightEndpoint.AvailabilityRequest(aircraftId, "AIRCRAFT"));
+
+        Thread.sleep(3000l);
+        var matchRequest = new FlightEndpoint.MatchRequest(
+                studentId, "2030-01-07-00", "2030-01-07-23", null, null, "BK007");
+        var matchResponse = httpClient.POST(URL_PREFIX + "/match")
+                .withRequestBody(matchRequest)
+                .responseBodyAs(FlightEndpoint.MatchResponse.class)
+                .invoke();
+
+        Assertions.assertEquals(StatusCodes.OK, matchResponse.status());
+        Assertions.assertEquals("2030-01-07-10", matchResponse.body().slotId());
+        Assertions.assertEquals(3, getSlot("2030-01-07-10").body().bookings().size());
+    }
+
+    @Test
+    public void retriedBookingWithIdempotencyKeyIsReplayedOverHttp() {
+
+        var slotId = "SL008";
+        var studentId = "STU008";
+        var instructorId = "INS008";
+        var aircraftId = "AIR008";
+        var bookingId = "BK008";
+
+        markAvailable(slotId, new FlightEndpoint.AvailabilityRequest(studentId, "STUDENT"));
+        markAvailable(slotId, new FlightEndpoint.AvailabilityRequest(aircraftId, "AIRCRAFT"));
+        markAvailable(slotId, new FlightEndpoint.AvailabilityRequest(instructorId, "INSTRUCTOR"));
+
+        var bookingRequest = new FlightEndpoint.BookingRequest(studentId, aircraftId, instructorId, bookingId);
+        var first = httpClient.POST(URL_PREFIX + "/bookings/" + slotId)
+                .addHeader(FlightEndpoint.IDEMPOTENCY_KEY_HEADER, "IDEM008")
+                .withRequestBody(bookingRequest).invoke();
+        var retry = httpClient.POST(URL_PREFIX + "/bookings/" + slotId)
+                .addHeader(FlightEndpoint.IDEMPOTENCY_KEY_HEADER, "IDEM008")
+                .withRequestBody(bookingRequest).invoke();
+
+        Assertions.assertEquals(StatusCodes.CREATED, first.status());
+        Assertions.assertEquals(StatusCodes.CREATED, retry.status());
+        Assertions.assertEquals(3, getSlot(slotId).body().bookings().size());
+
+        // the same key cannot be reused for a different request
+        var otherRequest = new FlightEndpoint.BookingRequest(studentId, aircraftId, instructorId, "BK008-2");
+        var reused = httpClient.POST(URL_PREFIX + "/bookings/" + slotId)
+                .addHeader(FlightEndpoint.IDEMPOTENCY_KEY_HEADER, "IDEM008")
+                .withRequestBody(otherRequest).invoke();
+        Assertions.assertEquals(StatusCodes.UNPROCESSABLE_ENTITY, reused.status());
+    }
+
+    @Test
+    public void getSlotAnswersIfNoneMatchWithNotModifiedOverHttp() {
+
+        var slotId = "SL009";
+        markAvailable(slotId, new FlightEndpoint.AvailabilityRequest("STU009", "STUDENT"));
+
+        var first = httpClient.GET(URL_PREFIX + "/availability/" + slotId).invoke();
+        Assertions.assertEquals(StatusCodes.OK, first.status());
+        var etag = first.httpResponse().getHeader("ETag").get().value();
+
+        var unchanged = httpClient.GET(URL_PREFIX + "/availability/" + slotId)
+                .addHeader("If-None-Match", etag).invoke();
+        Assertions.assertEquals(StatusCodes.NOT_MODIFIED, unchanged.status());
+
+        markAvailable(slotId, new FlightEndpoint.AvailabilityRequest("AIR009", "AIRCRAFT"));
+
+        var changed = httpClient.GET(URL_PREFIX + "/availability/" + slotId)
+                .addHeader("If-None-Match", etag).invoke();
+        Assertions.assertEquals(StatusCodes.OK, changed.status());
+        Assertions.assertNotEquals(etag, changed.httpResponse().getHeader("ETag").get().value());
+    }
+
+    @Test
+    public void exportSlotsInRangeAsCsvOverHttp() throws InterruptedException {
+
+        markAvailable("2030-01-10-09", new FlightEndpoint.AvailabilityRequest("STU010", "STUDENT"));
+        markAvailable("2030-01-10-10", new FlightEndpoint.AvailabilityRequest("STU010", "STUDENT"));
+        markAvailable("2030-01-11-09", new FlightEndpoint.AvailabilityRequest("STU010", "STUDENT"));
+
+        Thread.sleep(7000l);
+        var exportResponse = httpClient
+                .GET(URL_PREFIX + "/export/available?format=csv&from=2030-01-10-00&to=2030-01-10-23")
+                .invoke();
+
+        Assertions.assertEquals(StatusCodes.OK, exportResponse.status());
+        var lines = exportResponse.body().utf8String().strip().split("\n");
+        Assertions.assertEquals("slotId,participantId,participantType,bookingId,status", lines[0]);
+        Assertions.assertEquals(3, lines.length);
+    }
+
+    @Test
+    public void getSlotIdsOnlyOverHttp() throws InterruptedException {
+
+        markAvailable("2030-02-10-09", new FlightEndpoint.AvailabilityRequest("STU011", "STUDENT"));
+        markAvailable("2030-02-10-10", new FlightEndpoint.AvailabilityRequest("STU011", "STUDENT"));
+
+        Thread.sleep(7000l);
+        var response = httpClient
+                .GET(URL_PREFIX + "/slots/STU011/available?fields=slotId")
+                .responseBodyAs(ParticipantSlotsView.SlotSummaryList.class)
+                .invoke();
+
+        Assertions.assertEquals(StatusCodes.OK, response.status());
+        Assertions.assertEquals(2, response.body().slots().size());
+        Assertions.assertNull(response.body().slots().get(0).bookingId());
+
+        var badFields = httpClient.GET(URL_PREFIX + "/slots/STU011/available?fields=color").invoke();
+        Assertions.assertEquals(StatusCodes.BAD_REQUEST, badFields.status());
+        // only the summary fields can be picked one by one
+        var partialRow = httpClient.GET(URL_PREFIX + "/slots/STU011/available?fields=slotId,status").invoke();
+        Assertions.assertEquals(StatusCodes.BAD_REQUEST, partialRow.status());
+    }
+
+    @Test
+    public void getSlotRosterOverHttp() throws InterruptedException {
+
+        var slotId = "2030-04-10-09";
+        markAvailable(slotId, new FlightEndpoint.AvailabilityRequest("STU012", "STUDENT"));
+        markAvailable(slotId, new FlightEndpoint.AvailabilityRequest("INS012", "INSTRUCTOR"));
+        markAvailable(slotId, new FlightEndpoint.AvailabilityRequest("AIR012", "AIRCRAFT"));
+        createBooking(slotId, new FlightEndpoint.BookingRequest("STU012", "AIR012", "INS012", "BK012"));
+        markAvailable(slotId, new FlightEndpoint.AvailabilityRequest("STU013", "STUDENT"));
+
+        Thread.sleep(7000l);
+        var roster = httpClient.GET(URL_PREFIX + "/slots/by-slot/" + slotId)
+                .responseBodyAs(FlightEndpoint.SlotRoster.class)
+                .invoke()
+                .body();
+        Assertions.assertEquals(2, roster.students().size());
+        Assertions.assertEquals(1, roster.instructors().size());
+        Assertions.assertEquals("BK012", roster.aircraft().get(0).bookingId());
+
+        var booked = httpClient.GET(URL_PREFIX + "/slots/by-slot/" + slotId + "?status=booked")
+                .responseBodyAs(FlightEndpoint.SlotRoster.class)
+                .invoke()
+                .body();
+        Assertions.assertEquals(1, booked.students().size());
+        Assertions.assertEquals("STU012", booked.students().get(0).participantId());
+    }
+
+    @Test
+    public void getSnapshotOfManySlotsOverHttp() {
+
+        var slots = 100;
+        var from = SlotIds.hourIndex("2030-05-01-00").getAsInt();
+        var slotIds = IntStream.range(from, from + slots).mapToObj(SlotIds::fromHourIndex).toList();
+        for (int i = 0; i < slots; i++) {
+            markAvailable(slotIds.get(i), new FlightEndpoint.AvailabilityRequest("STU1" + i, "STUDENT"));
+        }
+
+        // the planner grid used to issue one request per slot
+        var loopStarted = System.nanoTime();
+        var looped = slotIds.stream().map(slotId -> getSlot(slotId).body()).toList();
+        var loopMillis = (System.nanoTime() - loopStarted) / 1_000_000;
+
+        var snapshotStarted = System.nanoTime();
+        var snapshot = httpClient.POST(URL_PREFIX + "/snapshot")
+                .withRequestBody(new FlightEndpoint.SnapshotRequest(slotIds, null, null))
+                .responseBodyAs(FlightEndpoint.SnapshotResponse.class)
+                .invoke()
+                .body()
+                .slots();
+        var snapshotMillis = (System.nanoTime() - snapshotStarted) / 1_000_000;
+        log.info("{} slots: {} ms one by one, {} ms as a snapshot", slots, loopMillis, snapshotMillis);
+
+        Assertions.assertEquals(slotIds, snapshot.stream().map(SlotSnapshotReader.SlotSnapshot::slotId).toList());
+        for (int i = 0; i < slots; i++) {
+            Assertions.assertEquals(looped.get(i).available(), snapshot.get(i).available());
+        }
+
+        var range = httpClient.GET(URL_PREFIX + "/snapshot?from=2030-05-01-00&to=2030-05-01-23")
+                .responseBodyAs(FlightEndpoint.SnapshotResponse.class)
+                .invoke();
+        Assertions.assertEquals(24, range.body().slots().size());
+
+        var streamed = httpClient.GET(URL_PREFIX + "/snapshot?from=2030-05-01-00&to=2030-05-01-23&stream=true")
+                .invoke();
+        Assertions.assertEquals(24, streamed.body().utf8String().strip().split("\n").length);
+
+        var tooMany = httpClient.GET(URL_PREFIX + "/snapshot?from=2030-05-01-00&to=2030-06-01-00").invoke();
+        Assertions.assertEquals(StatusCodes.BAD_REQUEST, tooMany.status());
+    }
+
     private StrictResponse<ByteString> markAvailable(String slotId, FlightEndpoint.AvailabilityRequest request) {
         return httpClient.POST(URL_PREFIX + "/availability/" + slotId)
                 .withRequestBody(request).invoke();
@@ -0,0 +1,88 @@
+package io.example.application;
+
+import io.example.domain.Participant;
+import io.example.domain.Participant.ParticipantType;
+import io.example.domain.SlotStatus;
+import java.util.List;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class AvailabilityIndexTest {
+
+    @Test
+    void testEarliestCandidateInRange() {
+        var index = new AvailabilityIndex();
+        markAll(index, "2025-08-08-09", "STUD001", "INST001", "AIRC001");
+        markAll(index, "2025-08-08-10", "STUD001", "INST001", "AIRC001");
+        markAll(index, "2025-08-09-09", "STUD001", "INST001", "AIRC001");
+
+        var candidates = index.candidates("STUD001", "2025-08-08-10", "2025-08-09-23", null, null).toList();
+
+        Assertions.assertEquals(2, candidates.size());
+        Assertions.assertEquals("2025-08-08-10", candidates.get(0).slotId());
+        Assertions.assertEquals("INST001", candidates.get(0).instructorId());
+        Assertions.assertEquals("AIRC001", candidates.get(0).aircraftId());
+    }
+
+    @Test
+    void testSlotWithoutAllParticipantTypesIsSkipped() {
+        var index = new AvailabilityIndex();
+        index.apply(row("2025-08-08-09", "STUD001", ParticipantType.STUDENT, SlotStatus.AVAILABLE));
+        index.apply(row("2025-08-08-09", "AIRC001", ParticipantType.AIRCRAFT, SlotStatus.AVAILABLE));
+        markAll(index, "2025-08-08-11", "STUD001", "INST001", "AIRC001");
+
+        var candidates = index.candidates("STUD001", "2025-08-08-00", "2025-08-08-23", null, null).toList();
+
+        Assertions.assertEquals(1, candidates.size());
+        Assertions.assertEquals("2025-08-08-11", candidates.get(0).slotId());
+    }
+
+    @Test
+    void testPreferencesAreHonoured() {
+        var index = new AvailabilityIndex();
+        markAll(index, "2025-08-08-09", "STUD001", "INST001", "AIRC001");
+        markAll(index, "2025-08-08-10", "STUD001", "INST002", "AIRC001");
+
+        var candidates = index.candidates("STUD001", "2025-08-08-00", "2025-08-08-23", "INST002", null).toList();
+
+        Assertions.assertEquals(1, candidates.size());
+        Assertions.assertEquals("2025-08-08-10", candidates.get(0).slotId());
+        Assertions.assertEquals("INST002", candidates.get(0).instructorId());
+    }
+
+    @Test
+    void testBookedParticipantsAreNoLongerCandidates() {
+        var index = new AvailabilityIndex();
+        markAll(index, "2025-08-08-09", "STUD001", "INST001", "AIRC001");
+
+        index.apply(row("2025-08-08-09", "AIRC001", ParticipantType.AIRCRAFT, SlotStatus.BOOKED));
+
+        Assertions.assertEquals(0, index.candidates("STUD001", "2025-08-08-00", "2025-08-08-23", null, null).count());
+    }
+
+    @Test
+    void testSlotsBeforeTheHorizonAreDropped() {
+        var index = new AvailabilityIndex();
+        markAll(index, "2025-08-08-09", "STUD001", "INST001", "AIRC001");
+        markAll(index, "2025-08-08-10", "STUD001", "INST001", "AIRC001");
+        markAll(index, "sim-slot", "STUD001", "INST001", "AIRC001");
+
+        index.dropBefore("2025-08-08-10");
+
+        var candidates = index.candidates("STUD001", "2025-08-08-00", "zzz", null, null).toList();
+        Assertions.assertEquals(
+                List.of("2025-08-08-10", "sim-slot"),
+                candidates.stream().map(AvailabilityIndex.Candidate::slotId).toList());
+        Assertions.assertFalse(index.isAvailable("2025-08-08-09", new Participant("INST001", ParticipantType.INSTRUCTOR)));
+    }
+
+    private void markAll(AvailabilityIndex index, String slotId, String studentId, String instructorId, String aircraftId) {
+        index.apply(row(slotId, studentId, ParticipantType.STUDENT, SlotStatus.AVAILABLE));
+        index.apply(row(slotId, instructorId, ParticipantType.INSTRUCTOR, SlotStatus.AVAILABLE));
+        index.apply(row(slotId, aircraftId, ParticipantType.AIRCRAFT, SlotStatus.AVAILABLE));
+    }
+
+    private ParticipantSlotsView.SlotRow row(String slotId, String participantId, ParticipantType type, SlotStatus status) {
+        return new ParticipantSlotsView.SlotRow(slotId, participantId, type.name(), null, status);
+    }
+}
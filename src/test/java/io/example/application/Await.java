@@ -0,0 +1,30 @@
+package io.example.application;
+
+import java.util.function.BooleanSupplier;
+import java.util.function.Supplier;
+import org.junit.jupiter.api.Assertions;
+
+// Polls a condition that becomes true once asynchronous processing, such as a
+// consumer or a view update, has caught up, and fails the test if it does not
+// within the timeout
+public final class Await {
+
+    private static final long DEFAULT_TIMEOUT_MILLIS = 30_000;
+    private static final long POLL_MILLIS = 100;
+
+    private Await() {
+    }
+
+    public static void until(BooleanSupplier condition, String message) throws InterruptedException {
+        until(condition, DEFAULT_TIMEOUT_MILLIS, () -> message);
+    }
+
+    public static void until(BooleanSupplier condition, long timeoutMillis, Supplier<String> message)
+            throws InterruptedException {
+        var deadline = System.currentTimeMillis() + timeoutMillis;
+        while (!condition.getAsBoolean()) {
+            Assertions.assertTrue(System.currentTimeMillis() < deadline, message);
+            Thread.sleep(POLL_MILLIS);
+        }
+    }
+}
@@ -2,6 +2,8 @@ package io.example.application;
 
 import akka.javasdk.testkit.EventSourcedTestKit;
 import io.example.domain.Participant;
+import io.example.domain.ScheduleRecord;
+import java.util.List;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 
@@ -48,6 +50,28 @@ public class BookingSlotEntityTest {
         Assertions.assertEquals(0, testKit.getState().available().size());
     }
 
+    @Test
+    void testRevertBookingMakesParticipantsAvailableAgain() {
+        var testKit = EventSourcedTestKit.of(BookingSlotEntity::new);
+        for (Participant participant : List.of(
+                new Participant("STUD001", Participant.ParticipantType.STUDENT),
+                new Participant("AIRC001", Participant.ParticipantType.AIRCRAFT),
+                new Participant("INST001", Participant.ParticipantType.INSTRUCTOR))) {
+            testKit.method(BookingSlotEntity::markSlotAvailable)
+                    .invoke(new BookingSlotEntity.Command.MarkSlotAvailable(participant));
+        }
+        testKit.method(BookingSlotEntity::bookSlot)
+                .invoke(new BookingSlotEntity.Command.BookReservation("STUD001", "AIRC001", "INST001", "BOOK001"));
+
+        var revert = testKit.method(BookingSlotEntity::revertBooking).invoke("BOOK001");
+
+        Assertions.assertEquals(6, revert.getAllEvents().size());
+        Assertions.assertEquals(0, testKit.getState().bookings().size());
+        Assertions.assertEquals(3, testKit.getState().available().size());
+        // a repeated revert finds nothing to take back
+        Assertions.assertFalse(testKit.method(BookingSlotEntity::revertBooking).invoke("BOOK001").didPersistEvents());
+    }
+
     @Test
     void testBookSlotParticipantNotMarked() {
         var testKit = EventSourcedTestKit.of(BookingSlotEntity::new);
@@ -133,4 +157,42 @@ public class BookingSlotEntityTest {
         var response = testKit.method(BookingSlotEntity::cancelBooking).invoke("test001");
         Assertions.assertEquals("No bookings were available for the booking id provided", response.getError());
     }
+
+    @Test
+    void testGetSlotIfModified() {
+        var testKit = EventSourcedTestKit.of(BookingSlotEntity::new);
+        var student = new Participant("STUD001", Participant.ParticipantType.STUDENT);
+
+        testKit.method(BookingSlotEntity::markSlotAvailable).invoke(new BookingSlotEntity.Command.MarkSlotAvailable(student));
+
+        var current = testKit.method(BookingSlotEntity::getSlotIfModified).invoke(-1L).getReply();
+        Assertions.assertEquals(1, current.version());
+        Assertions.assertEquals(1, current.timeslot().available().size());
+
+        var unchanged = testKit.method(BookingSlotEntity::getSlotIfModified).invoke(current.version()).getReply();
+        Assertions.assertEquals(1, unchanged.version());
+        Assertions.assertNull(unchanged.timeslot());
+    }
+
+    @Test
+    void testImportScheduleSkipsAlreadyAppliedRecords() {
+        var testKit = EventSourcedTestKit.of(BookingSlotEntity::new);
+        var records = List.<ScheduleRecord>of(
+                new ScheduleRecord.Availability("2024-03-01-09", "STUD001", Participant.ParticipantType.STUDENT),
+                new ScheduleRecord.Availability("2024-03-01-09", "STUD002", Participant.ParticipantType.STUDENT),
+                new ScheduleRecord.Booking("2024-03-01-09", "BOOK001", "STUD001", "AIRC001", "INST001"));
+
+        var first = testKit.method(BookingSlotEntity::importSchedule)
+                .invoke(new BookingSlotEntity.Command.ImportSchedule(records));
+        Assertions.assertEquals(5, first.getReply());
+        Assertions.assertEquals(3, testKit.getState().bookings().size());
+        Assertions.assertEquals(1, testKit.getState().available().size());
+
+        // a resumed import replays the chunk that was in flight
+        var replayed = testKit.method(BookingSlotEntity::importSchedule)
+                .invoke(new BookingSlotEntity.Command.ImportSchedule(records));
+        Assertions.assertEquals(0, replayed.getReply());
+        Assertions.assertFalse(replayed.didPersistEvents());
+        Assertions.assertEquals(3, testKit.getState().bookings().size());
+    }
 }
@@ -0,0 +1,64 @@
+package io.example.application;
+
+import io.example.application.FaultInjector.Point;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class FaultInjectorTest {
+
+    private static final List<String> CALLS = IntStream.range(0, 1000).mapToObj(i -> "event-" + i).toList();
+
+    @Test
+    void testSameCallsFailWhateverTheOrder() {
+        var shuffled = new ArrayList<>(CALLS);
+        Collections.shuffle(shuffled, new Random(7));
+
+        var inOrder = failingCalls(new FaultInjector(0.2, "faulty-", 42), CALLS);
+        var outOfOrder = failingCalls(new FaultInjector(0.2, "faulty-", 42), shuffled);
+
+        Assertions.assertEquals(Set.copyOf(inOrder), Set.copyOf(outOfOrder));
+        Assertions.assertNotEquals(inOrder, failingCalls(new FaultInjector(0.2, "faulty-", 43), CALLS));
+    }
+
+    @Test
+    void testFailedCallsGetThroughWhenRetried() {
+        var injector = new FaultInjector(0.2, "faulty-", 42);
+        var failed = failingCalls(injector, CALLS);
+
+        Assertions.assertEquals(failed.size(), injector.injected());
+        Assertions.assertTrue(failed.size() > 150 && failed.size() < 250, "injected " + failed.size());
+        for (String call : failed) {
+            injector.maybeFail(Point.BEFORE_CALL, "faulty-1-STUD001", call);
+        }
+        Assertions.assertEquals(failed.size(), injector.injected());
+    }
+
+    @Test
+    void testOtherSlotsAndZeroRateAreUntouched() {
+        var injector = new FaultInjector(0.2, "faulty-", 42);
+        for (String call : CALLS) {
+            injector.maybeFail(Point.AFTER_CALL, "steady-1-STUD001", call);
+        }
+        Assertions.assertEquals(0, injector.injected());
+
+        Assertions.assertTrue(failingCalls(new FaultInjector(0, "", 42), CALLS).isEmpty());
+    }
+
+    private static List<String> failingCalls(FaultInjector injector, List<String> calls) {
+        var failing = new ArrayList<String>();
+        for (String call : calls) {
+            try {
+                injector.maybeFail(Point.BEFORE_CALL, "faulty-1-STUD001", call);
+            } catch (FaultInjector.InjectedFault ex) {
+                failing.add(call);
+            }
+        }
+        return failing;
+    }
+}
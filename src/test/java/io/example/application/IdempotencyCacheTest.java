@@ -0,0 +1,61 @@
+package io.example.application;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class IdempotencyCacheTest {
+
+    private static final Instant NOW = Instant.parse("2025-08-08T09:00:00Z");
+
+    @Test
+    void testRecordedResultIsReturned() {
+        var cache = cache(10);
+        cache.put("KEY001", cache.newResult(cache.newReservation("create-booking SL001"), 201));
+
+        Assertions.assertEquals(201, cache.get("KEY001").orElseThrow().statusCode());
+        Assertions.assertTrue(cache.get("KEY002").isEmpty());
+    }
+
+    @Test
+    void testExpiredResultIsAbsent() {
+        var cache = cache(10);
+        cache.put("KEY001", new IdempotencyKeyEntity.Result("create-booking SL001", 201, NOW.minusSeconds(1), "R1"));
+
+        Assertions.assertTrue(cache.get("KEY001").isEmpty());
+    }
+
+    @Test
+    void testLeastRecentlyUsedKeyIsEvicted() {
+        var cache = cache(2);
+        cache.put("KEY001", cache.newResult(cache.newReservation("a"), 200));
+        cache.put("KEY002", cache.newResult(cache.newReservation("b"), 200));
+        cache.get("KEY001");
+        cache.put("KEY003", cache.newResult(cache.newReservation("c"), 200));
+
+        Assertions.assertTrue(cache.get("KEY001").isPresent());
+        Assertions.assertTrue(cache.get("KEY002").isEmpty());
+        Assertions.assertTrue(cache.get("KEY003").isPresent());
+    }
+
+    @Test
+    void testReservationsInProgressAreNotCached() {
+        var cache = cache(10);
+        var reservation = cache.newReservation("create-booking SL001");
+        cache.put("KEY001", reservation);
+
+        Assertions.assertTrue(reservation.inProgress());
+        Assertions.assertEquals(NOW.plusSeconds(30), reservation.expiresAt());
+        Assertions.assertTrue(cache.get("KEY001").isEmpty());
+
+        cache.put("KEY001", cache.newResult(reservation, 201));
+        Assertions.assertEquals(reservation.reservationId(), cache.get("KEY001").orElseThrow().reservationId());
+    }
+
+    private static IdempotencyCache cache(int maxEntries) {
+        return new IdempotencyCache(maxEntries, Duration.ofHours(1), Duration.ofSeconds(30), Clock.fixed(NOW, ZoneOffset.UTC));
+    }
+}
@@ -0,0 +1,75 @@
+package io.example.application;
+
+import akka.javasdk.testkit.KeyValueEntityTestKit;
+import java.time.Instant;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class IdempotencyKeyEntityTest {
+
+    @Test
+    void testSecondReservationFindsTheFirstInProgress() {
+        var testKit = KeyValueEntityTestKit.of(ctx -> new IdempotencyKeyEntity());
+
+        var first = testKit.method(IdempotencyKeyEntity::reserve).invoke(reservation("R1")).getReply();
+        var second = testKit.method(IdempotencyKeyEntity::reserve).invoke(reservation("R2")).getReply();
+
+        Assertions.assertEquals("R1", first.reservationId());
+        Assertions.assertEquals("R1", second.reservationId());
+        Assertions.assertTrue(second.inProgress());
+    }
+
+    @Test
+    void testOnlyTheHolderCompletesTheKey() {
+        var testKit = KeyValueEntityTestKit.of(ctx -> new IdempotencyKeyEntity());
+        testKit.method(IdempotencyKeyEntity::reserve).invoke(reservation("R1"));
+
+        var other = testKit.method(IdempotencyKeyEntity::complete).invoke(result("R2", 201)).getReply();
+        Assertions.assertTrue(other.inProgress());
+
+        var completed = testKit.method(IdempotencyKeyEntity::complete).invoke(result("R1", 400)).getReply();
+        Assertions.assertEquals(400, completed.statusCode());
+        Assertions.assertEquals(400, testKit.method(IdempotencyKeyEntity::reserve)
+                .invoke(reservation("R3"))
+                .getReply()
+                .statusCode());
+    }
+
+    @Test
+    void testReleasedKeyCanBeReservedAgain() {
+        var testKit = KeyValueEntityTestKit.of(ctx -> new IdempotencyKeyEntity());
+        testKit.method(IdempotencyKeyEntity::reserve).invoke(reservation("R1"));
+
+        testKit.method(IdempotencyKeyEntity::release).invoke("R1");
+
+        var again = testKit.method(IdempotencyKeyEntity::reserve).invoke(reservation("R2")).getReply();
+        Assertions.assertEquals("R2", again.reservationId());
+    }
+
+    @Test
+    void testExpireDeletesOnlyExpiredKeys() {
+        var testKit = KeyValueEntityTestKit.of(ctx -> new IdempotencyKeyEntity());
+        testKit.method(IdempotencyKeyEntity::reserve).invoke(reservation("R1"));
+        testKit.method(IdempotencyKeyEntity::complete).invoke(result("R1", 201));
+
+        Assertions.assertFalse(testKit.method(IdempotencyKeyEntity::expire).invoke().stateWasDeleted());
+
+        var expired = new IdempotencyKeyEntity.Result("create-booking SL001", 201, Instant.now().minusSeconds(1), "R2");
+        var deleted = KeyValueEntityTestKit.of(ctx -> new IdempotencyKeyEntity());
+        deleted.method(IdempotencyKeyEntity::reserve).invoke(expired);
+        Assertions.assertTrue(deleted.method(IdempotencyKeyEntity::expire).invoke().stateWasDeleted());
+    }
+
+    private static IdempotencyKeyEntity.Result reservation(String reservationId) {
+        return new IdempotencyKeyEntity.Result(
+                "create-booking SL001",
+                IdempotencyKeyEntity.Result.IN_PROGRESS,
+                Instant.now().plusSeconds(30),
+                reservationId);
+    }
+
+    private static IdempotencyKeyEntity.Result result(String reservationId, int statusCode) {
+        return new IdempotencyKeyEntity.Result(
+                "create-booking SL001", statusCode, Instant.now().plusSeconds(3600), reservationId);
+    }
+}
@@ -0,0 +1,95 @@
+package io.example.application;
+
+import io.example.application.ParticipantBitmapIndex.Mode;
+import io.example.application.ParticipantBitmapIndex.Status;
+import io.example.domain.Participant.ParticipantType;
+import io.example.domain.SlotStatus;
+import java.util.List;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class ParticipantBitmapIndexTest {
+
+    @Test
+    void testIntersectionOfAvailability() {
+        var index = new ParticipantBitmapIndex();
+        index.update("STUD001", "2025-08-08-09", Status.AVAILABLE);
+        index.update("STUD001", "2025-08-08-10", Status.AVAILABLE);
+        index.update("INST001", "2025-08-08-10", Status.AVAILABLE);
+        index.update("INST001", "2025-08-08-11", Status.AVAILABLE);
+        index.update("AIRC001", "2025-08-08-10", Status.AVAILABLE);
+
+        var slots = index.query(
+                List.of("STUD001", "INST001", "AIRC001"), Status.AVAILABLE, Mode.ALL, "2025-08-01-00", "2025-08-31-23");
+
+        Assertions.assertEquals(List.of("2025-08-08-10"), slots);
+    }
+
+    @Test
+    void testUnionOfBookingsWithinRange() {
+        var index = new ParticipantBitmapIndex();
+        index.update("STUD001", "2025-08-08-09", Status.BOOKED);
+        index.update("INST001", "2025-08-09-09", Status.BOOKED);
+        index.update("INST001", "2025-09-01-09", Status.BOOKED);
+
+        var slots = index.query(
+                List.of("STUD001", "INST001"), Status.BOOKED, Mode.ANY, "2025-08-01-00", "2025-08-31-23");
+
+        Assertions.assertEquals(List.of("2025-08-08-09", "2025-08-09-09"), slots);
+    }
+
+    @Test
+    void testLatestRowWins() {
+        var index = new ParticipantBitmapIndex();
+        index.apply(row("2025-08-08-09", SlotStatus.AVAILABLE));
+        index.apply(row("2025-08-08-09", SlotStatus.BOOKED));
+
+        Assertions.assertEquals(List.of(), index.query(
+                List.of("AIRC001"), Status.AVAILABLE, Mode.ALL, "2025-08-08-00", "2025-08-08-23"));
+        Assertions.assertEquals(List.of("2025-08-08-09"), index.query(
+                List.of("AIRC001"), Status.BOOKED, Mode.ALL, "2025-08-08-00", "2025-08-08-23"));
+
+        index.apply(row("2025-08-08-09", SlotStatus.CANCELED));
+
+        Assertions.assertEquals(List.of(), index.query(
+                List.of("AIRC001"), Status.BOOKED, Mode.ALL, "2025-08-08-00", "2025-08-08-23"));
+    }
+
+    @Test
+    void testSlotsWithoutDateEncodingAreNotIndexed() {
+        var index = new ParticipantBitmapIndex();
+        index.update("STUD001", "2025-08-08-09", Status.AVAILABLE);
+        index.update("INST001", "bestslot", Status.AVAILABLE);
+
+        Assertions.assertEquals(List.of(), index.query(
+                List.of("STUD001", "INST001"), Status.AVAILABLE, Mode.ALL, "2025-08-08-00", "2025-08-08-23"));
+    }
+
+    @Test
+    void testSlotsBeforeTheHorizonAreDropped() {
+        var index = new ParticipantBitmapIndex();
+        index.apply(row("2025-08-08-09", SlotStatus.BOOKED));
+        index.apply(row("2025-08-08-10", SlotStatus.BOOKED));
+
+        index.dropBefore("2025-08-08-10");
+
+        Assertions.assertEquals(List.of("2025-08-08-10"), index.query(
+                List.of("AIRC001"), Status.BOOKED, Mode.ALL, "2025-08-08-00", "2025-08-08-23"));
+    }
+
+    @Test
+    void testSlotsWithLengthSuffixAreNotIndexed() {
+        var index = new ParticipantBitmapIndex();
+        index.update("AIRC001", "2025-08-08-09", Status.AVAILABLE);
+        index.update("AIRC001", "2025-08-08-09-2h", Status.BOOKED);
+        index.update("AIRC001", "2025-08-08-09-2h", null);
+
+        var slots = index.query(List.of("AIRC001"), Status.AVAILABLE, Mode.ALL, "2025-08-08-00", "2025-08-08-23");
+
+        Assertions.assertEquals(List.of("2025-08-08-09"), slots);
+    }
+
+    private static ParticipantSlotsView.SlotRow row(String slotId, SlotStatus status) {
+        return new ParticipantSlotsView.SlotRow(slotId, "AIRC001", ParticipantType.AIRCRAFT.name(), null, status);
+    }
+}
@@ -0,0 +1,84 @@
+package io.example.application;
+
+import akka.javasdk.testkit.KeyValueEntityTestKit;
+import java.util.List;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class ParticipantReservationEntityTest {
+
+    @Test
+    void testOverlappingClaimIsRefused() {
+        var testKit = KeyValueEntityTestKit.of(ctx -> new ParticipantReservationEntity());
+
+        var first = testKit.method(ParticipantReservationEntity::claim)
+                .invoke(new ParticipantReservationEntity.Claim("2030-08-08-09", "BOOK001"));
+        Assertions.assertTrue(first.getReply());
+
+        var overlapping = testKit.method(ParticipantReservationEntity::claim)
+                .invoke(new ParticipantReservationEntity.Claim("2030-08-08-08-2h", "BOOK002"));
+        Assertions.assertEquals(
+                "Participant is already booked in overlapping slot 2030-08-08-09", overlapping.getError());
+
+        var adjacent = testKit.method(ParticipantReservationEntity::claim)
+                .invoke(new ParticipantReservationEntity.Claim("2030-08-08-10-2h", "BOOK003"));
+        Assertions.assertTrue(adjacent.getReply());
+    }
+
+    @Test
+    void testRepeatedClaimIsNotNew() {
+        var testKit = KeyValueEntityTestKit.of(ctx -> new ParticipantReservationEntity());
+        var claim = new ParticipantReservationEntity.Claim("2030-08-08-09", "BOOK001");
+
+        testKit.method(ParticipantReservationEntity::claim).invoke(claim);
+        var again = testKit.method(ParticipantReservationEntity::claim).invoke(claim);
+
+        Assertions.assertFalse(again.getReply());
+        Assertions.assertEquals(1, testKit.getState().claims().size());
+    }
+
+    @Test
+    void testReleaseFreesTheSlot() {
+        var testKit = KeyValueEntityTestKit.of(ctx -> new ParticipantReservationEntity());
+        testKit.method(ParticipantReservationEntity::claim)
+                .invoke(new ParticipantReservationEntity.Claim("2030-08-08-09", "BOOK001"));
+
+        testKit.method(ParticipantReservationEntity::release).invoke("BOOK001");
+        var claim = testKit.method(ParticipantReservationEntity::claim)
+                .invoke(new ParticipantReservationEntity.Claim("2030-08-08-08-2h", "BOOK002"));
+
+        Assertions.assertTrue(claim.getReply());
+    }
+
+    @Test
+    void testClaimBeforeTheEpochDoesNotBlockLaterClaims() {
+        var testKit = KeyValueEntityTestKit.of(ctx -> new ParticipantReservationEntity());
+        testKit.method(ParticipantReservationEntity::claim)
+                .invoke(new ParticipantReservationEntity.Claim("1999-12-31-23", "BOOK000"));
+
+        var claim = testKit.method(ParticipantReservationEntity::claim)
+                .invoke(new ParticipantReservationEntity.Claim("2030-08-08-09", "BOOK001"));
+        var release = testKit.method(ParticipantReservationEntity::release).invoke("BOOK001");
+
+        Assertions.assertTrue(claim.getReply());
+        Assertions.assertTrue(release.getReply());
+        Assertions.assertTrue(testKit.getState().claims().isEmpty());
+    }
+
+    @Test
+    void testHeldImportBlocksOverlappingClaims() {
+        var testKit = KeyValueEntityTestKit.of(ctx -> new ParticipantReservationEntity());
+        var imported = new ParticipantReservationEntity.Claim("2030-08-08-09-2h", "IMPORT001");
+
+        testKit.method(ParticipantReservationEntity::hold).invoke(imported);
+        testKit.method(ParticipantReservationEntity::hold).invoke(imported);
+        // slots that have ended are not held
+        testKit.method(ParticipantReservationEntity::hold)
+                .invoke(new ParticipantReservationEntity.Claim("2020-08-08-09", "IMPORT000"));
+        var overlapping = testKit.method(ParticipantReservationEntity::claim)
+                .invoke(new ParticipantReservationEntity.Claim("2030-08-08-10", "BOOK001"));
+
+        Assertions.assertEquals(List.of(imported), testKit.getState().claims());
+        Assertions.assertTrue(overlapping.isError());
+    }
+}
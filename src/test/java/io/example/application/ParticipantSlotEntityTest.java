@@ -0,0 +1,56 @@
+package io.example.application;
+
+import akka.javasdk.testkit.EventSourcedTestKit;
+import io.example.domain.Participant.ParticipantType;
+import io.example.domain.SlotStatus;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class ParticipantSlotEntityTest {
+
+    @Test
+    void testRedeliveredCommandsPersistNothing() {
+        var testKit = EventSourcedTestKit.of(context -> new ParticipantSlotEntity());
+        var mark = new ParticipantSlotEntity.Commands.MarkAvailable("SL001", "STUD001", ParticipantType.STUDENT);
+        var book = new ParticipantSlotEntity.Commands.Book("SL001", "STUD001", ParticipantType.STUDENT, "BOOK001");
+
+        Assertions.assertTrue(testKit.method(ParticipantSlotEntity::markAvailable).invoke(mark).didPersistEvents());
+        Assertions.assertFalse(testKit.method(ParticipantSlotEntity::markAvailable).invoke(mark).didPersistEvents());
+        Assertions.assertTrue(testKit.method(ParticipantSlotEntity::book).invoke(book).didPersistEvents());
+        Assertions.assertFalse(testKit.method(ParticipantSlotEntity::book).invoke(book).didPersistEvents());
+    }
+
+    @Test
+    void testNewBookingAfterCancelIsPersisted() {
+        var testKit = EventSourcedTestKit.of(context -> new ParticipantSlotEntity());
+
+        testKit.method(ParticipantSlotEntity::book).invoke(
+                new ParticipantSlotEntity.Commands.Book("SL001", "STUD001", ParticipantType.STUDENT, "BOOK001"));
+        testKit.method(ParticipantSlotEntity::cancel).invoke(
+                new ParticipantSlotEntity.Commands.Cancel("SL001", "STUD001", ParticipantType.STUDENT, "BOOK001"));
+        var rebook = testKit.method(ParticipantSlotEntity::book).invoke(
+                new ParticipantSlotEntity.Commands.Book("SL001", "STUD001", ParticipantType.STUDENT, "BOOK002"));
+
+        Assertions.assertTrue(rebook.didPersistEvents());
+    }
+
+    @Test
+    void testArchiveCarriesFinalStatusAndDeletes() {
+        var testKit = EventSourcedTestKit.of(context -> new ParticipantSlotEntity());
+
+        testKit.method(ParticipantSlotEntity::book).invoke(
+                new ParticipantSlotEntity.Commands.Book("SL001", "STUD001", ParticipantType.STUDENT, "BOOK001"));
+        var archive = testKit.method(ParticipantSlotEntity::archive).invoke();
+
+        var archived = archive.getNextEventOfType(ParticipantSlotEntity.Event.Archived.class);
+        Assertions.assertEquals("SL001", archived.slotId());
+        Assertions.assertEquals("STUD001", archived.participantId());
+        Assertions.assertEquals(ParticipantType.STUDENT, archived.participantType());
+        Assertions.assertEquals("BOOK001", archived.bookingId());
+        Assertions.assertEquals(SlotStatus.BOOKED, archived.status());
+        Assertions.assertTrue(testKit.isDeleted());
+
+        // archiving again, e.g. when the timer reruns a batch, is a no-op
+        Assertions.assertFalse(testKit.method(ParticipantSlotEntity::archive).invoke().didPersistEvents());
+    }
+}
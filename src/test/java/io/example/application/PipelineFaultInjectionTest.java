@@ -0,0 +1,189 @@
+package io.example.application;
+
+import akka.javasdk.DependencyProvider;
+import akka.javasdk.testkit.TestKit;
+import akka.javasdk.testkit.TestKitSupport;
+import io.example.domain.Participant;
+import io.example.domain.SlotStatus;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+// Drives booking traffic through BookingSlotEntity while the
+// SlotToParticipantConsumer's ParticipantSlotEntity calls fail on a fixed
+// share of the events for slots prefixed `faulty-`, making the consumer
+// restart and redeliver, and checks that the ParticipantSlotsView still
+// converges to every slot's Timeslot. The same traffic on `steady-` slots
+// gives the fault-free baseline that recovery time and throughput are
+// compared against. An unmeasured run on `warmup-` slots comes first, so
+// that neither measured run pays for warming up the JVM. The faulty run
+// still follows the steady one, so the logged ratio is only a rough
+// indication of how much the failures slow the pipeline down.
+public class PipelineFaultInjectionTest extends TestKitSupport {
+
+    private static final Logger log = LoggerFactory.getLogger(PipelineFaultInjectionTest.class);
+
+    private static final int SLOTS = 20;
+    private static final long SEED = 42;
+    private static final long CONVERGENCE_TIMEOUT_MILLIS = 120_000;
+
+    private final FaultInjector faultInjector = new FaultInjector(0.2, "faulty-", SEED);
+
+    // Provides the test's own FaultInjector, so that the test can check that
+    // failures were injected, and the other dependencies of the components
+    // this test drives
+    @Override
+    protected TestKit.Settings testKitSettings() {
+        return TestKit.Settings.DEFAULT.withDependencyProvider(new DependencyProvider() {
+            @Override
+            public <T> T getDependency(Class<T> clazz) {
+                if (clazz == FaultInjector.class) {
+                    return clazz.cast(faultInjector);
+                }
+                if (clazz == WaitlistPromoter.class) {
+                    return clazz.cast(new WaitlistPromoter(componentClient, new SlotBooker(componentClient)));
+                }
+                throw new IllegalArgumentException("Unknown dependency type: " + clazz.getName());
+            }
+        });
+    }
+
+    // Every run fails the test if the view does not converge in time, so the
+    // assertion on recovery is made by awaitConvergence. Which calls fail is
+    // covered by FaultInjectorTest.
+    @Test
+    void testViewConvergesUnderInjectedFailures() throws InterruptedException {
+        runScenario("warmup-");
+        var steady = runScenario("steady-");
+        Assertions.assertEquals(0, faultInjector.injected());
+        var faulty = runScenario("faulty-");
+        Assertions.assertTrue(faultInjector.injected() > 0, "no failures were injected");
+
+        log.info("steady: {}", steady);
+        log.info("faulty: {}", faulty);
+        log.info("{} failures injected, recovery took {} ms longer, throughput is {}% of the baseline "
+                        + "(measured after the steady run, so only indicative)",
+                faultInjector.injected(),
+                faulty.recoveryMillis() - steady.recoveryMillis(),
+                Math.round(100 * faulty.eventsPerSecond() / steady.eventsPerSecond()));
+    }
+
+    private Result runScenario(String prefix) throws InterruptedException {
+        var random = new Random(SEED);
+        var slotIds = IntStream.range(0, SLOTS).mapToObj(i -> prefix + i).toList();
+
+        var started = System.nanoTime();
+        var events = 0;
+        for (String slotId : slotIds) {
+            events += drive(slotId, random);
+        }
+        var written = System.nanoTime();
+        awaitConvergence(slotIds);
+        var converged = System.nanoTime();
+
+        return new Result(
+                events,
+                TimeUnit.NANOSECONDS.toMillis(written - started),
+                TimeUnit.NANOSECONDS.toMillis(converged - written),
+                events * 1e9 / (converged - started));
+    }
+
+    // Applies a random but seeded sequence of commands to a slot and returns
+    // the number of events it produced
+    private int drive(String slotId, Random random) {
+        var student = new Participant("STUD-" + slotId, Participant.ParticipantType.STUDENT);
+        var instructor = new Participant("INST-" + slotId, Participant.ParticipantType.INSTRUCTOR);
+        var aircraft = new Participant("AIRC-" + slotId, Participant.ParticipantType.AIRCRAFT);
+        var bookingId = "BOOK-" + slotId;
+
+        markAvailable(slotId, student);
+        markAvailable(slotId, instructor);
+        markAvailable(slotId, aircraft);
+        var events = 3;
+
+        if (random.nextBoolean()) {
+            var standby = new Participant("STBY-" + slotId, Participant.ParticipantType.STUDENT);
+            markAvailable(slotId, standby);
+            componentClient
+                    .forEventSourcedEntity(slotId)
+                    .method(BookingSlotEntity::unmarkSlotAvailable)
+                    .invoke(new BookingSlotEntity.Command.UnmarkSlotAvailable(standby));
+            events += 2;
+        }
+
+        componentClient
+                .forEventSourcedEntity(slotId)
+                .method(BookingSlotEntity::bookSlot)
+                .invoke(new BookingSlotEntity.Command.BookReservation(
+                        student.id(), aircraft.id(), instructor.id(), bookingId));
+        events += 3;
+
+        if (random.nextInt(3) == 0) {
+            componentClient
+                    .forEventSourcedEntity(slotId)
+                    .method(BookingSlotEntity::cancelBooking)
+                    .invoke(bookingId);
+            markAvailable(slotId, aircraft);
+            events += 4;
+        }
+        return events;
+    }
+
+    private void markAvailable(String slotId, Participant participant) {
+        componentClient
+                .forEventSourcedEntity(slotId)
+                .method(BookingSlotEntity::markSlotAvailable)
+                .invoke(new BookingSlotEntity.Command.MarkSlotAvailable(participant));
+    }
+
+    private void awaitConvergence(List<String> slotIds) throws InterruptedException {
+        var pending = new ArrayList<>(slotIds);
+        Await.until(
+                () -> {
+                    pending.removeIf(this::converged);
+                    return pending.isEmpty();
+                },
+                CONVERGENCE_TIMEOUT_MILLIS,
+                () -> "view did not converge for " + pending);
+    }
+
+    // The available participants and bookings in the view match the slot
+    private boolean converged(String slotId) {
+        var timeslot = componentClient
+                .forEventSourcedEntity(slotId)
+                .method(BookingSlotEntity::getSlot)
+                .invoke();
+        var rows = componentClient.forView()
+                .method(ParticipantSlotsView::getSlotsBySlot)
+                .invoke(slotId)
+                .slots();
+
+        var expectedAvailable = timeslot.available().stream()
+                .map(Participant::id)
+                .collect(Collectors.toSet());
+        var expectedBooked = timeslot.bookings().stream()
+                .map(booking -> booking.participant().id() + "/" + booking.bookingId())
+                .collect(Collectors.toSet());
+        return expectedAvailable.equals(participants(rows, SlotStatus.AVAILABLE, false))
+                && expectedBooked.equals(participants(rows, SlotStatus.BOOKED, true));
+    }
+
+    private static Set<String> participants(
+            List<ParticipantSlotsView.SlotRow> rows, SlotStatus status, boolean withBookingId) {
+        return rows.stream()
+                .filter(row -> row.status() == status)
+                .map(row -> withBookingId ? row.participantId() + "/" + row.bookingId() : row.participantId())
+                .collect(Collectors.toSet());
+    }
+
+    private record Result(int events, long writeMillis, long recoveryMillis, double eventsPerSecond) {
+    }
+}
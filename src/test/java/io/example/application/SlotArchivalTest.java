@@ -0,0 +1,94 @@
+package io.example.application;
+
+import akka.javasdk.testkit.TestKit;
+import akka.javasdk.testkit.TestKitSupport;
+import io.example.domain.Participant;
+import io.example.domain.SlotStatus;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+// Runs the SlotArchivalAction against slots before and after the archival
+// horizon and checks that only the past ones move from the
+// ParticipantSlotsView to the ArchivedSlotsView, with their final status.
+// The pages are smaller than the number of date-like slots ahead of the past
+// one, so it is only reached by paging past them.
+public class SlotArchivalTest extends TestKitSupport {
+
+    private static final String PAST_SLOT = "2020-02-02-09";
+    private static final String FUTURE_SLOT = "2099-02-02-09";
+    // not date-encoded, but sorts before any date
+    private static final String UNDATED_SLOT = "100-sim";
+    // not date-encoded, but sorts like a date before the past slot
+    private static final List<String> DATE_LIKE_SLOTS =
+            List.of("2020-01-sim-1", "2020-01-sim-2", "2020-01-sim-3", "2020-01-sim-4");
+
+    @Override
+    protected TestKit.Settings testKitSettings() {
+        return TestKit.Settings.DEFAULT.withAdditionalConfig("flight.archival.batch-size = 4");
+    }
+
+    @Test
+    void testPastSlotsAreMovedToTheArchive() throws InterruptedException {
+        var student = new Participant("STUD-ARCH", Participant.ParticipantType.STUDENT);
+        var instructor = new Participant("INST-ARCH", Participant.ParticipantType.INSTRUCTOR);
+        var aircraft = new Participant("AIRC-ARCH", Participant.ParticipantType.AIRCRAFT);
+        for (String slotId : List.of(PAST_SLOT, FUTURE_SLOT, UNDATED_SLOT)) {
+            markAvailable(slotId, student);
+        }
+        for (String slotId : DATE_LIKE_SLOTS) {
+            markAvailable(slotId, student);
+        }
+        markAvailable(PAST_SLOT, instructor);
+        markAvailable(PAST_SLOT, aircraft);
+        componentClient
+                .forEventSourcedEntity(PAST_SLOT)
+                .method(BookingSlotEntity::bookSlot)
+                .invoke(new BookingSlotEntity.Command.BookReservation(
+                        student.id(), aircraft.id(), instructor.id(), "BOOK-ARCH"));
+        Await.until(() -> slotIds(student.id()).size() == 7, "participant slots did not reach the view");
+
+        componentClient.forTimedAction()
+                .method(SlotArchivalAction::archivePastSlots)
+                .invoke(SlotArchivalAction.FIRST_PAGE);
+
+        Await.until(() -> !slotIds(student.id()).contains(PAST_SLOT), "past slot was not archived");
+        var remaining = new ArrayList<>(DATE_LIKE_SLOTS);
+        remaining.add(FUTURE_SLOT);
+        remaining.add(UNDATED_SLOT);
+        Assertions.assertEquals(remaining.stream().sorted().toList(), slotIds(student.id()).stream().sorted().toList());
+
+        var archive = new ArchivedSlotsView.ArchiveInput(student.id(), "2020-01-01-00", "2020-12-31-23");
+        Await.until(() -> !archivedSlots(archive).isEmpty(), "archived slot did not reach the archive view");
+        var archived = archivedSlots(archive);
+        Assertions.assertEquals(1, archived.size());
+        Assertions.assertEquals(PAST_SLOT, archived.get(0).slotId());
+        Assertions.assertEquals(SlotStatus.BOOKED, archived.get(0).status());
+        Assertions.assertEquals("BOOK-ARCH", archived.get(0).bookingId());
+    }
+
+    private void markAvailable(String slotId, Participant participant) {
+        componentClient
+                .forEventSourcedEntity(slotId)
+                .method(BookingSlotEntity::markSlotAvailable)
+                .invoke(new BookingSlotEntity.Command.MarkSlotAvailable(participant));
+    }
+
+    private List<String> slotIds(String participantId) {
+        return componentClient.forView()
+                .method(ParticipantSlotsView::getSlotsByParticipant)
+                .invoke(participantId)
+                .slots()
+                .stream()
+                .map(ParticipantSlotsView.SlotRow::slotId)
+                .toList();
+    }
+
+    private List<ArchivedSlotsView.ArchivedSlotRow> archivedSlots(ArchivedSlotsView.ArchiveInput input) {
+        return componentClient.forView()
+                .method(ArchivedSlotsView::getArchivedSlots)
+                .invoke(input)
+                .slots();
+    }
+}
@@ -0,0 +1,171 @@
+package io.example.application;
+
+import akka.javasdk.testkit.TestKitSupport;
+import io.example.domain.Participant;
+import io.example.domain.SlotIds;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+// Contention benchmark: many concurrent bookings competing for one aircraft
+// across overlapping one and two hour slots. Whatever order they land in,
+// the aircraft must never end up in two overlapping slots.
+public class SlotBookerContentionTest extends TestKitSupport {
+
+    private static final Logger log = LoggerFactory.getLogger(SlotBookerContentionTest.class);
+
+    private static final String AIRCRAFT_ID = "AIRC-CONTENDED";
+
+    @Test
+    void testConcurrentBookingsForOneAircraftNeverOverlap() throws InterruptedException {
+        var slotBooker = new SlotBooker(componentClient);
+
+        var slotIds = new ArrayList<String>();
+        for (int hour = 6; hour < 20; hour++) {
+            var start = String.format("2031-05-05-%02d", hour);
+            slotIds.add(start);
+            slotIds.add(start + "-2h");
+        }
+        for (int i = 0; i < slotIds.size(); i++) {
+            markAvailable(slotIds.get(i), new Participant(AIRCRAFT_ID, Participant.ParticipantType.AIRCRAFT));
+            markAvailable(slotIds.get(i), new Participant("STUD-" + i, Participant.ParticipantType.STUDENT));
+            markAvailable(slotIds.get(i), new Participant("INST-" + i, Participant.ParticipantType.INSTRUCTOR));
+        }
+
+        var booked = new ConcurrentLinkedQueue<String>();
+        var executor = Executors.newFixedThreadPool(16);
+        var started = System.nanoTime();
+        for (int i = 0; i < slotIds.size(); i++) {
+            var index = i;
+            executor.submit(() -> {
+                var slotId = slotIds.get(index);
+                try {
+                    slotBooker.book(slotId, new BookingSlotEntity.Command.BookReservation(
+                            "STUD-" + index, AIRCRAFT_ID, "INST-" + index, "BOOK-" + index));
+                    booked.add(slotId);
+                } catch (RuntimeException ex) {
+                    // lost the race for the aircraft
+                }
+            });
+        }
+        executor.shutdown();
+        Assertions.assertTrue(executor.awaitTermination(60, TimeUnit.SECONDS));
+        var elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started);
+        log.info("{} concurrent bookings for one aircraft, {} succeeded, in {} ms ({} bookings/s)",
+                slotIds.size(), booked.size(), elapsedMillis, slotIds.size() * 1000L / Math.max(1, elapsedMillis));
+
+        Assertions.assertFalse(booked.isEmpty());
+        List<String> winners = new ArrayList<>(booked);
+        for (int i = 0; i < winners.size(); i++) {
+            for (int j = i + 1; j < winners.size(); j++) {
+                Assertions.assertFalse(
+                        SlotIds.overlap(winners.get(i), winners.get(j)),
+                        winners.get(i) + " overlaps " + winners.get(j));
+            }
+        }
+
+        var claims = componentClient
+                .forKeyValueEntity(AIRCRAFT_ID)
+                .method(ParticipantReservationEntity::getReservations)
+                .invoke()
+                .claims();
+        Assertions.assertEquals(booked.size(), claims.size());
+    }
+
+    // Two bookings for the same slot and aircraft: exactly one wins, and the
+    // loser's student and instructor are still available in the slot
+    @Test
+    void testTwoBookingsRacingForOneSlotLeaveOneWinner() throws Exception {
+        var slotBooker = new SlotBooker(componentClient);
+        var executor = Executors.newFixedThreadPool(2);
+
+        for (int round = 0; round < 10; round++) {
+            var slotId = String.format("2031-06-06-%02d", 6 + round);
+            var index = round;
+            var aircraft = new Participant("AIRC-RACE-" + round, Participant.ParticipantType.AIRCRAFT);
+            markAvailable(slotId, aircraft);
+            for (String side : List.of("A", "B")) {
+                markAvailable(slotId, new Participant("STUD-" + side + round, Participant.ParticipantType.STUDENT));
+                markAvailable(slotId, new Participant("INST-" + side + round, Participant.ParticipantType.INSTRUCTOR));
+            }
+
+            var bookings = List.of("A", "B").stream()
+                    .map(side -> executor.submit(() -> {
+                        try {
+                            slotBooker.book(slotId, new BookingSlotEntity.Command.BookReservation(
+                                    "STUD-" + side + index, aircraft.id(), "INST-" + side + index, "BOOK-" + side + index));
+                            return true;
+                        } catch (SlotBooker.SlotNotBookableException | SlotBooker.OverlappingBookingException ex) {
+                            return false;
+                        }
+                    }))
+                    .toList();
+            var won = 0;
+            for (var booking : bookings) {
+                won += booking.get(30, TimeUnit.SECONDS) ? 1 : 0;
+            }
+
+            var slot = componentClient
+                    .forEventSourcedEntity(slotId)
+                    .method(BookingSlotEntity::getSlot)
+                    .invoke();
+            Assertions.assertEquals(1, won, slotId);
+            Assertions.assertEquals(3, slot.bookings().size(), slotId);
+            // the slot rejected the loser, so its student and instructor
+            // were never booked or canceled
+            Assertions.assertEquals(2, slot.available().size(), slotId);
+            Assertions.assertEquals(1, componentClient
+                    .forKeyValueEntity(aircraft.id())
+                    .method(ParticipantReservationEntity::getReservations)
+                    .invoke()
+                    .claims()
+                    .size());
+        }
+        executor.shutdown();
+    }
+
+    // A booking overlapping a committed one is reverted: the slot holds no
+    // booking and its participants are available again
+    @Test
+    void testOverlappingBookingIsReverted() {
+        var slotBooker = new SlotBooker(componentClient);
+        var aircraft = new Participant("AIRC-REVERT", Participant.ParticipantType.AIRCRAFT);
+        for (String slotId : List.of("2031-07-07-09", "2031-07-07-08-2h")) {
+            markAvailable(slotId, aircraft);
+            markAvailable(slotId, new Participant("STUD-" + slotId, Participant.ParticipantType.STUDENT));
+            markAvailable(slotId, new Participant("INST-" + slotId, Participant.ParticipantType.INSTRUCTOR));
+        }
+
+        slotBooker.book("2031-07-07-09", new BookingSlotEntity.Command.BookReservation(
+                "STUD-2031-07-07-09", aircraft.id(), "INST-2031-07-07-09", "BOOK-REVERT-1"));
+        Assertions.assertThrows(SlotBooker.OverlappingBookingException.class, () ->
+                slotBooker.book("2031-07-07-08-2h", new BookingSlotEntity.Command.BookReservation(
+                        "STUD-2031-07-07-08-2h", aircraft.id(), "INST-2031-07-07-08-2h", "BOOK-REVERT-2")));
+
+        var reverted = componentClient
+                .forEventSourcedEntity("2031-07-07-08-2h")
+                .method(BookingSlotEntity::getSlot)
+                .invoke();
+        Assertions.assertTrue(reverted.bookings().isEmpty());
+        Assertions.assertEquals(3, reverted.available().size());
+        Assertions.assertTrue(componentClient
+                .forKeyValueEntity("STUD-2031-07-07-08-2h")
+                .method(ParticipantReservationEntity::getReservations)
+                .invoke()
+                .claims()
+                .isEmpty());
+    }
+
+    private void markAvailable(String slotId, Participant participant) {
+        componentClient
+                .forEventSourcedEntity(slotId)
+                .method(BookingSlotEntity::markSlotAvailable)
+                .invoke(new BookingSlotEntity.Command.MarkSlotAvailable(participant));
+    }
+}
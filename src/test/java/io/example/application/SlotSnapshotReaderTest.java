@@ -0,0 +1,36 @@
+package io.example.application;
+
+import java.util.List;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class SlotSnapshotReaderTest {
+
+    private final SlotSnapshotReader reader = new SlotSnapshotReader(null, null, 4, 48);
+
+    @Test
+    void testListedSlotIdsKeepTheirOrderWithoutDuplicates() {
+        Assertions.assertEquals(
+                List.of("SL002", "SL001"),
+                reader.slotIds(List.of("SL002", "SL001", "SL002"), null, null));
+    }
+
+    @Test
+    void testRangeExpandsToEveryHourInclusive() {
+        var slotIds = reader.slotIds(null, "2025-08-08-22", "2025-08-09-01");
+
+        Assertions.assertEquals(List.of("2025-08-08-22", "2025-08-08-23", "2025-08-09-00", "2025-08-09-01"), slotIds);
+    }
+
+    @Test
+    void testRejectsBadRangesAndTooManySlots() {
+        Assertions.assertThrows(IllegalArgumentException.class, () -> reader.slotIds(null, "SL001", "SL002"));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> reader.slotIds(List.of(), null, null));
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> reader.slotIds(null, "2025-08-08-22-2h", "2025-08-09-01"));
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> reader.slotIds(null, "2025-08-09-01", "2025-08-08-22"));
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> reader.slotIds(null, "2025-08-08-00", "2025-08-10-00"));
+    }
+}
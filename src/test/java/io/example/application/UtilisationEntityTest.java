@@ -0,0 +1,88 @@
+package io.example.application;
+
+import akka.javasdk.testkit.KeyValueEntityTestKit;
+import io.example.application.UtilisationEntity.Period;
+import io.example.domain.Participant.ParticipantType;
+import io.example.domain.SlotStatus;
+import java.time.LocalDate;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class UtilisationEntityTest {
+
+    @Test
+    void testCountersFollowStatusTransitions() {
+        var testKit = KeyValueEntityTestKit.of(ctx -> new UtilisationEntity());
+
+        testKit.method(UtilisationEntity::recordStatus).invoke(change("2025-08-08-09", SlotStatus.AVAILABLE));
+        testKit.method(UtilisationEntity::recordStatus).invoke(change("2025-08-08-10", SlotStatus.AVAILABLE));
+        Assertions.assertEquals(2, testKit.getState().availableHours());
+
+        testKit.method(UtilisationEntity::recordStatus).invoke(change("2025-08-08-09", SlotStatus.BOOKED));
+        Assertions.assertEquals(1, testKit.getState().availableHours());
+        Assertions.assertEquals(1, testKit.getState().bookedHours());
+        Assertions.assertEquals(1, testKit.getState().bookings());
+
+        testKit.method(UtilisationEntity::recordStatus).invoke(change("2025-08-08-09", SlotStatus.CANCELED));
+        Assertions.assertEquals(0, testKit.getState().bookedHours());
+        Assertions.assertEquals(1, testKit.getState().bookings());
+        Assertions.assertEquals(1, testKit.getState().cancellations());
+    }
+
+    @Test
+    void testRedeliveredStatusIsNotCountedTwice() {
+        var testKit = KeyValueEntityTestKit.of(ctx -> new UtilisationEntity());
+
+        testKit.method(UtilisationEntity::recordStatus).invoke(change("2025-08-08-09", SlotStatus.BOOKED, 1));
+        testKit.method(UtilisationEntity::recordStatus).invoke(change("2025-08-08-09", SlotStatus.BOOKED, 1));
+
+        Assertions.assertEquals(1, testKit.getState().bookedHours());
+        Assertions.assertEquals(1, testKit.getState().bookings());
+
+        // a restarted consumer redelivers a window of events
+        testKit.method(UtilisationEntity::recordStatus).invoke(change("2025-08-08-10", SlotStatus.AVAILABLE, 1));
+        testKit.method(UtilisationEntity::recordStatus).invoke(change("2025-08-08-10", SlotStatus.BOOKED, 2));
+        testKit.method(UtilisationEntity::recordStatus).invoke(change("2025-08-08-10", SlotStatus.CANCELED, 3));
+        testKit.method(UtilisationEntity::recordStatus).invoke(change("2025-08-08-10", SlotStatus.AVAILABLE, 1));
+        testKit.method(UtilisationEntity::recordStatus).invoke(change("2025-08-08-10", SlotStatus.BOOKED, 2));
+        testKit.method(UtilisationEntity::recordStatus).invoke(change("2025-08-08-10", SlotStatus.CANCELED, 3));
+
+        Assertions.assertEquals(1, testKit.getState().bookedHours());
+        Assertions.assertEquals(0, testKit.getState().availableHours());
+        Assertions.assertEquals(2, testKit.getState().bookings());
+        Assertions.assertEquals(1, testKit.getState().cancellations());
+
+        // the next new event is applied
+        testKit.method(UtilisationEntity::recordStatus).invoke(change("2025-08-08-10", SlotStatus.AVAILABLE, 4));
+        Assertions.assertEquals(1, testKit.getState().availableHours());
+    }
+
+    @Test
+    void testWeekBucketsUseIsoWeeks() {
+        Assertions.assertEquals("2025-08-08", Period.DAY.bucket(LocalDate.parse("2025-08-08")));
+        Assertions.assertEquals("2025-W32", Period.WEEK.bucket(LocalDate.parse("2025-08-08")));
+        Assertions.assertEquals("2026-W01", Period.WEEK.bucket(LocalDate.parse("2025-12-29")));
+    }
+
+    @Test
+    void testLongerSlotsCountEveryHour() {
+        var testKit = KeyValueEntityTestKit.of(ctx -> new UtilisationEntity());
+
+        testKit.method(UtilisationEntity::recordStatus).invoke(change("2025-08-08-09-2h", SlotStatus.AVAILABLE));
+        Assertions.assertEquals(2, testKit.getState().availableHours());
+
+        testKit.method(UtilisationEntity::recordStatus).invoke(change("2025-08-08-09-2h", SlotStatus.BOOKED));
+        Assertions.assertEquals(0, testKit.getState().availableHours());
+        Assertions.assertEquals(2, testKit.getState().bookedHours());
+        Assertions.assertEquals(1, testKit.getState().bookings());
+    }
+
+    private UtilisationEntity.StatusChange change(String slotId, SlotStatus status) {
+        return change(slotId, status, 0);
+    }
+
+    private UtilisationEntity.StatusChange change(String slotId, SlotStatus status, long sequenceNumber) {
+        return new UtilisationEntity.StatusChange(
+                "AIRC001", ParticipantType.AIRCRAFT, Period.DAY, "2025-08-08", slotId, status, sequenceNumber);
+    }
+}
@@ -0,0 +1,61 @@
+package io.example.application;
+
+import akka.javasdk.testkit.TestKitSupport;
+import io.example.domain.Participant;
+import io.example.domain.Timeslot;
+import java.time.Instant;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class WaitlistConsumerTest extends TestKitSupport {
+
+    @Test
+    void testWaitingStudentIsBookedWhenParticipantsBecomeAvailable() throws InterruptedException {
+        var slotId = "2032-03-03-09";
+        var student = new Participant("STUD-WAIT", Participant.ParticipantType.STUDENT);
+        var other = new Participant("STUD-WAIT-2", Participant.ParticipantType.STUDENT);
+        var instructor = new Participant("INST-WAIT", Participant.ParticipantType.INSTRUCTOR);
+        var aircraft = new Participant("AIRC-WAIT", Participant.ParticipantType.AIRCRAFT);
+
+        markAvailable(slotId, student);
+        join(slotId, student, instructor, aircraft, "BOOK-WAIT-1");
+        // not available in the slot, so stays on the waitlist
+        join(slotId, other, instructor, aircraft, "BOOK-WAIT-2");
+
+        markAvailable(slotId, instructor);
+        markAvailable(slotId, aircraft);
+
+        Await.until(() -> !slot(slotId).findBooking("BOOK-WAIT-1").isEmpty(), "waiting student was not booked");
+        Await.until(() -> waitlist(slotId).entries().size() == 1, "booked entry was not removed from the waitlist");
+        Assertions.assertEquals("BOOK-WAIT-2", waitlist(slotId).entries().get(0).bookingId());
+        Assertions.assertTrue(slot(slotId).findBooking("BOOK-WAIT-2").isEmpty());
+    }
+
+    private void markAvailable(String slotId, Participant participant) {
+        componentClient
+                .forEventSourcedEntity(slotId)
+                .method(BookingSlotEntity::markSlotAvailable)
+                .invoke(new BookingSlotEntity.Command.MarkSlotAvailable(participant));
+    }
+
+    private void join(String slotId, Participant student, Participant instructor, Participant aircraft, String bookingId) {
+        componentClient
+                .forKeyValueEntity(slotId)
+                .method(WaitlistEntity::join)
+                .invoke(new WaitlistEntity.Entry(student.id(), aircraft.id(), instructor.id(), bookingId, Instant.now()));
+    }
+
+    private Timeslot slot(String slotId) {
+        return componentClient
+                .forEventSourcedEntity(slotId)
+                .method(BookingSlotEntity::getSlot)
+                .invoke();
+    }
+
+    private WaitlistEntity.State waitlist(String slotId) {
+        return componentClient
+                .forKeyValueEntity(slotId)
+                .method(WaitlistEntity::getWaitlist)
+                .invoke();
+    }
+}
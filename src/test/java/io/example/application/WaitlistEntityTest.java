@@ -0,0 +1,50 @@
+package io.example.application;
+
+import akka.javasdk.testkit.KeyValueEntityTestKit;
+import java.time.Instant;
+import java.util.List;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class WaitlistEntityTest {
+
+    @Test
+    void testEntriesAreOrderedByRequestTime() {
+        var testKit = KeyValueEntityTestKit.of(ctx -> new WaitlistEntity());
+
+        testKit.method(WaitlistEntity::join).invoke(entry("STUD002", "BOOK002", 20));
+        testKit.method(WaitlistEntity::join).invoke(entry("STUD001", "BOOK001", 10));
+        // joining again keeps the original place
+        testKit.method(WaitlistEntity::join).invoke(entry("STUD002", "BOOK003", 30));
+
+        Assertions.assertEquals(
+                List.of("STUD001", "STUD002"),
+                testKit.getState().entries().stream().map(WaitlistEntity.Entry::studentId).toList());
+    }
+
+    @Test
+    void testRemoveIsIdempotent() {
+        var testKit = KeyValueEntityTestKit.of(ctx -> new WaitlistEntity());
+        testKit.method(WaitlistEntity::join).invoke(entry("STUD001", "BOOK001", 10));
+
+        testKit.method(WaitlistEntity::remove).invoke("BOOK001");
+        var again = testKit.method(WaitlistEntity::remove).invoke("BOOK001");
+
+        Assertions.assertFalse(again.isError());
+        Assertions.assertTrue(testKit.getState().entries().isEmpty());
+    }
+
+    @Test
+    void testLeaveWhenNotWaiting() {
+        var testKit = KeyValueEntityTestKit.of(ctx -> new WaitlistEntity());
+
+        var result = testKit.method(WaitlistEntity::leave).invoke("STUD001");
+
+        Assertions.assertEquals("Student is not on the waitlist for this slot", result.getError());
+    }
+
+    private static WaitlistEntity.Entry entry(String studentId, String bookingId, long requestedAtSecond) {
+        return new WaitlistEntity.Entry(
+                studentId, "AIRC001", "INST001", bookingId, Instant.ofEpochSecond(requestedAtSecond));
+    }
+}